@@ -0,0 +1,233 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dictionary.DamageSolver;
+import dictionary.LetterIndex;
+import dictionary.Lexicon;
+import dictionary.MappedLexicon;
+import dictionary.TrieLexicon;
+import dictionary.WordIndex;
+
+/**
+ * <b>DictionaryBenchmark</b> measures loading the dictionary and the queries
+ * made on it at the start of and during a battle.
+ * 
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class DictionaryBenchmark {
+	/**
+	 * <b>Budget</b> chooses the amount of each letter the player has.
+	 * 
+	 * @author Lev Raizman
+	 * @version 2.0.0.0
+	 *
+	 */
+	@State(Scope.Benchmark)
+	public static class Budget {
+		/**
+		 * The amount of each letter.
+		 */
+		@Param({ "1", "2", "3" })
+		public int amount;
+
+		/**
+		 * The letters available, {@link Budget#amount} of each.
+		 */
+		public int[] available;
+
+		/**
+		 * Fills {@link Budget#available}.
+		 */
+		@Setup
+		public void setup() {
+			available = new int[26];
+			Arrays.fill(available, amount);
+		}
+	}
+
+	/**
+	 * <b>Outcomes</b> counts the searches whose damage is known to be the
+	 * best possible, and the ones that stopped before knowing it, which JMH
+	 * reports next to the time taken.
+	 * 
+	 * @author Lev Raizman
+	 * @version 2.0.0.0
+	 *
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Outcomes {
+		/**
+		 * The searches that found the best possible damage.
+		 */
+		public int optimal;
+
+		/**
+		 * The searches that stopped before knowing the best possible damage.
+		 */
+		public int unproven;
+
+		/**
+		 * Starts counting again for every iteration.
+		 */
+		@Setup(Level.Iteration)
+		public void clear() {
+			optimal = 0;
+			unproven = 0;
+		}
+	}
+
+	/**
+	 * The compiled dictionary.
+	 */
+	private static final File COMPILED = new File("resources/miscellaneous/wordsEn.dic");
+
+	/**
+	 * The word list the dictionary is compiled from.
+	 */
+	private static final File WORD_LIST = new File("resources/miscellaneous/wordsEn.txt");
+
+	/**
+	 * The dictionary being queried.
+	 */
+	private Lexicon lexicon;
+
+	/**
+	 * Chooses the words fought against.
+	 */
+	private WordIndex words;
+
+	/**
+	 * Finds the words that can be spelled.
+	 */
+	private LetterIndex letters;
+
+	/**
+	 * Finds the most damage that can be dealt in a battle.
+	 */
+	private DamageSolver solver;
+
+	/**
+	 * The letters of a new game, 2 of each.
+	 */
+	private int[] available;
+
+	/**
+	 * Loads the dictionary and its indexes.
+	 * 
+	 * @throws IOException
+	 *             if the compiled dictionary cannot be read.
+	 */
+	@Setup
+	public void setup() throws IOException {
+		lexicon = MappedLexicon.open(COMPILED);
+		words = new WordIndex(lexicon);
+		letters = new LetterIndex(lexicon);
+		solver = new DamageSolver(letters);
+		available = new int[26];
+		Arrays.fill(available, 2);
+	}
+
+	/**
+	 * @return The dictionary, opened from the compiled file.
+	 * @throws IOException
+	 *             if the compiled dictionary cannot be read.
+	 */
+	@Benchmark
+	public Lexicon openCompiled() throws IOException {
+		return MappedLexicon.open(COMPILED);
+	}
+
+	/**
+	 * @return The dictionary, read from the word list as the game originally
+	 *         did when a battle started.
+	 * @throws IOException
+	 *             if the word list cannot be read.
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Lexicon loadWordList() throws IOException {
+		return TrieLexicon.load(WORD_LIST, 3, 13);
+	}
+
+	/**
+	 * @return The index used to find the words that can be spelled.
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public LetterIndex buildLetterIndex() {
+		return new LetterIndex(lexicon);
+	}
+
+	/**
+	 * @return A word to fight against, chosen as in
+	 *         {@link frame.GameGraphics#initiateBattle()}.
+	 */
+	@Benchmark
+	public String randomWord() {
+		return words.randomWord(5, 13);
+	}
+
+	/**
+	 * @return The amount of words that can be spelled with the letters of a
+	 *         new game.
+	 */
+	@Benchmark
+	public int countPossibleWords() {
+		return letters.count(available, 3, 13);
+	}
+
+	/**
+	 * @return The most damage found against a word with the letters of a new
+	 *         game, as checked for every word drawn by
+	 *         {@link frame.GameGraphics#initiateBattle()}.
+	 */
+	@Benchmark
+	public DamageSolver.Solution solveDamage() {
+		return solver.solve("WILDCATS", available, 10);
+	}
+
+	/**
+	 * @param budget
+	 *            the amount of each letter the player has.
+	 * @param outcomes
+	 *            counts whether the damage found is known to be the best.
+	 * @return The most damage found against a random word, as checked for
+	 *         every word drawn by {@link frame.GameGraphics#initiateBattle()}.
+	 */
+	@Benchmark
+	public DamageSolver.Solution solveRandomDamage(Budget budget, Outcomes outcomes) {
+		DamageSolver.Solution solution = solver.solve(words.randomWord(5, 13), budget.available, 10);
+		if (solution.isOptimal())
+			outcomes.optimal++;
+		else
+			outcomes.unproven++;
+		return solution;
+	}
+}
@@ -0,0 +1,234 @@
+package benchmarks;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import characters.Enemy;
+import frame.GameGraphics;
+import frame.TextCache;
+import items.SpellInventory;
+import mapping.FogMask;
+import mapping.Tile;
+import mapping.TileCompositor;
+import mapping.TileMap;
+
+/**
+ * <b>RenderBenchmark</b> measures the {@link java.awt.Image images} built for
+ * every frame or every battle: the {@link mapping.TileMap map}, the
+ * {@link characters.Enemy enemy}, the spells and each inventory of
+ * {@link frame.GameGraphics}.
+ * 
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+	/**
+	 * A new game, in the first room and in a battle.
+	 */
+	private GameGraphics game;
+
+	/**
+	 * The first room of the game.
+	 */
+	private TileMap map;
+
+	/**
+	 * The colour of the {@link characters.Enemy enemies} and spells drawn.
+	 */
+	private Color colour;
+
+	/**
+	 * Stands in for the screen the game is drawn on.
+	 */
+	private BufferedImage screen;
+
+	/**
+	 * Renders rooms at their full size.
+	 */
+	private TileCompositor full;
+
+	/**
+	 * Renders rooms as minimaps.
+	 */
+	private TileCompositor minimap;
+
+	/**
+	 * The surface rooms are rendered on at their full size.
+	 */
+	private BufferedImage fullSurface;
+
+	/**
+	 * The surface rooms are rendered on as minimaps.
+	 */
+	private BufferedImage minimapSurface;
+
+	/**
+	 * Starts a new game and a battle in it.
+	 */
+	@Setup
+	public void setup() {
+		game = new GameGraphics();
+		map = new TileMap("k3");
+		colour = new Color(40, 160, 220);
+		screen = new BufferedImage(550, 550, BufferedImage.TYPE_INT_ARGB);
+		full = new TileCompositor(Tile.TILE_SIZE, Color.WHITE);
+		minimap = new TileCompositor(10, Color.WHITE);
+		fullSurface = full.createSurface(TileMap.SIZE, TileMap.SIZE);
+		minimapSurface = minimap.createSurface(TileMap.SIZE, TileMap.SIZE);
+		game.initiateBattle();
+	}
+
+	/**
+	 * @return The {@link java.awt.Image image} of a room.
+	 */
+	@Benchmark
+	public Image drawMap() {
+		return map.drawMap();
+	}
+
+	/**
+	 * @return A room rendered from scratch onto a reused surface.
+	 */
+	@Benchmark
+	public Image composeMap() {
+		full.render(map, fullSurface);
+		return fullSurface;
+	}
+
+	/**
+	 * @return A room rendered from scratch as a minimap.
+	 */
+	@Benchmark
+	public Image composeMinimap() {
+		minimap.render(map, minimapSurface);
+		return minimapSurface;
+	}
+
+	/**
+	 * @return The room with the {@link characters.MainCharacter player} and
+	 *         the fog of war, copied into a new {@link java.awt.Image image}.
+	 */
+	@Benchmark
+	public Image getMap() {
+		return game.getMap();
+	}
+
+	/**
+	 * @return The screen, after drawing the room with the
+	 *         {@link characters.MainCharacter player} and the fog of war on
+	 *         it, as done every frame.
+	 */
+	@Benchmark
+	public Image drawMapOnScreen() {
+		Graphics g = screen.getGraphics();
+		game.drawMap(g, 0, 0);
+		g.dispose();
+		return screen;
+	}
+
+	/**
+	 * @return The screen, after darkening a room around its centre as done
+	 *         on level 3.
+	 */
+	@Benchmark
+	public Image drawFog() {
+		Graphics g = screen.getGraphics();
+		FogMask.get(1, false).draw(g, 0, 0, new Point(5, 5));
+		g.dispose();
+		return screen;
+	}
+
+	/**
+	 * @return The battle screen, as drawn every frame of a battle.
+	 */
+	@Benchmark
+	public Image getEnemy() {
+		return game.getEnemy();
+	}
+
+	/**
+	 * @return The screen, after drawing ten lines of text as done on the high
+	 *         scores screen.
+	 */
+	@Benchmark
+	public Image drawText() {
+		Graphics g = screen.getGraphics();
+		Font font = TextCache.getFont("Castellar", 40);
+		for (int i = 0; i < 10; i++)
+			TextCache.drawCentred(g, (i + 1) + ". " + i * 100, font, Color.WHITE, 550, 50 + 50 * i);
+		g.dispose();
+		return screen;
+	}
+
+	/**
+	 * @return A new {@link characters.Enemy enemy}, tinted the first time it
+	 *         is drawn.
+	 */
+	@Benchmark
+	public Image drawEnemy() {
+		return new Enemy(colour, 10, Enemy.NAMES[0][0]).drawEnemy();
+	}
+
+	/**
+	 * @return A spell tinted in {@link RenderBenchmark#colour}.
+	 */
+	@Benchmark
+	public Image drawSpell() {
+		return SpellInventory.drawSpell(colour);
+	}
+
+	/**
+	 * @return The equipped {@link items.Item items}.
+	 */
+	@Benchmark
+	public Image getItemSetImage() {
+		return game.getItemSetImage();
+	}
+
+	/**
+	 * @return The {@link items.Item items} in the inventory.
+	 */
+	@Benchmark
+	public Image getItemInventory() {
+		return game.getItemInventory();
+	}
+
+	/**
+	 * @return The {@link items.GemInventory.Gem gems} in the inventory.
+	 */
+	@Benchmark
+	public Image getGemInventory() {
+		return game.getGemInventory();
+	}
+
+	/**
+	 * @return The spells in the inventory.
+	 */
+	@Benchmark
+	public Image getSpellInventory() {
+		return game.getSpellInventory();
+	}
+}
@@ -0,0 +1,170 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dictionary.Lexicon;
+import dictionary.MappedLexicon;
+import dictionary.WordScorer;
+import frame.DamageAccumulator;
+
+/**
+ * <b>ScoringBenchmark</b> measures how words written in a battle are scored
+ * against the word being fought, and how the total damage is found. Each
+ * operation scores the same {@link ScoringBenchmark#GUESSES} dictionary words.
+ * 
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ScoringBenchmark {
+	/**
+	 * The amount of words scored by each operation.
+	 */
+	private static final int GUESSES = 64;
+
+	/**
+	 * The word being fought.
+	 */
+	private static final String TARGET = "WILDCATS";
+
+	/**
+	 * The weapon damage used for the total damage.
+	 */
+	private static final int WEAPON_DAMAGE = 10;
+
+	/**
+	 * The dictionary the words are checked against.
+	 */
+	private Lexicon lexicon;
+
+	/**
+	 * Scores words against {@link ScoringBenchmark#TARGET}.
+	 */
+	private WordScorer scorer;
+
+	/**
+	 * The words being scored, the same for every run.
+	 */
+	private String[] guesses;
+
+	/**
+	 * A battle in which all of {@link ScoringBenchmark#guesses} were written.
+	 */
+	private DamageAccumulator battle;
+
+	/**
+	 * Chooses the words being scored, and writes them in a battle.
+	 * 
+	 * @throws IOException
+	 *             if the compiled dictionary cannot be read.
+	 */
+	@Setup
+	public void setup() throws IOException {
+		lexicon = MappedLexicon.open(new File("resources/miscellaneous/wordsEn.dic"));
+		scorer = new WordScorer(TARGET);
+		guesses = new String[GUESSES];
+		Random random = new Random(GUESSES);
+		for (int i = 0; i < GUESSES; i++) {
+			int length = 3 + random.nextInt(6);
+			guesses[i] = lexicon.getWord(length, random.nextInt(lexicon.size(length)));
+		}
+		battle = new DamageAccumulator(TARGET, lexicon);
+		for (String guess : guesses) {
+			battle.addWord(guess);
+		}
+	}
+
+	/**
+	 * @return The sum of the longest common substrings, found by a
+	 *         {@link WordScorer} prepared for the target.
+	 */
+	@Benchmark
+	public int longestSubstr() {
+		int out = 0;
+		for (String guess : guesses) {
+			out += scorer.longestSubstr(guess);
+		}
+		return out;
+	}
+
+	/**
+	 * @return The sum of the longest common substrings, found one pair of
+	 *         words at a time.
+	 */
+	@Benchmark
+	public int longestSubstrPair() {
+		int out = 0;
+		for (String guess : guesses) {
+			out += WordScorer.longestSubstr(TARGET, guess);
+		}
+		return out;
+	}
+
+	/**
+	 * @return The sum of the common letters, found by a {@link WordScorer}
+	 *         prepared for the target.
+	 */
+	@Benchmark
+	public int commonLetters() {
+		int out = 0;
+		for (String guess : guesses) {
+			out += scorer.commonLetters(guess);
+		}
+		return out;
+	}
+
+	/**
+	 * @return The sum of the common letters, found one pair of words at a
+	 *         time.
+	 */
+	@Benchmark
+	public int commonLettersPair() {
+		int out = 0;
+		for (String guess : guesses) {
+			out += WordScorer.commonLetters(TARGET, guess);
+		}
+		return out;
+	}
+
+	/**
+	 * @return A battle after scoring every word, as done when each word is
+	 *         finished.
+	 */
+	@Benchmark
+	public DamageAccumulator addWords() {
+		DamageAccumulator out = new DamageAccumulator(TARGET, lexicon);
+		for (String guess : guesses) {
+			out.addWord(guess);
+		}
+		return out;
+	}
+
+	/**
+	 * @return The total damage of the battle, as found by
+	 *         {@link frame.GameGraphics} every time the battle is drawn.
+	 */
+	@Benchmark
+	public int calculateDamage() {
+		return battle.getDamage(WEAPON_DAMAGE);
+	}
+}
@@ -0,0 +1,227 @@
+package benchmarks;
+
+import java.awt.Image;
+import java.awt.Point;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frame.GameGraphics;
+import mapping.Bitboard;
+import mapping.Tile;
+import mapping.TileMap;
+import mapping.WorldPack;
+import mapping.WorldPackCompiler;
+
+/**
+ * <b>WorldBenchmark</b> measures loading the world of a new game, from single
+ * {@link mapping.Tile tiles} up to the first frame of a new game, and
+ * starting a battle in it.
+ * 
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class WorldBenchmark {
+	/**
+	 * <b>TileType</b> chooses the type of {@link mapping.Tile tile} created:
+	 * a floor, a wall, a door, a pillar, or an item drawn over a floor.
+	 * 
+	 * @author Lev Raizman
+	 * @version 2.0.0.0
+	 *
+	 */
+	@State(Scope.Benchmark)
+	public static class TileType {
+		/**
+		 * The type of {@link mapping.Tile tile}, with {@code '_'} standing
+		 * for a floor.
+		 */
+		@Param({ "_", "w", "d", "p", "i" })
+		public String type;
+	}
+
+	/**
+	 * A new game, in the first room.
+	 */
+	private GameGraphics game;
+
+	/**
+	 * The first room of the game.
+	 */
+	private TileMap map;
+
+	/**
+	 * The rooms of the game, and the doors between them.
+	 */
+	private WorldPack world;
+
+	/**
+	 * Every position on a room.
+	 */
+	private Point[] cells;
+
+	/**
+	 * Starts a new game.
+	 */
+	@Setup
+	public void setup() {
+		game = new GameGraphics();
+		map = new TileMap("k1");
+		world = WorldPack.getWorld();
+		cells = new Point[TileMap.SIZE * TileMap.SIZE];
+		for (int i = 0; i < cells.length; i++) {
+			cells[i] = new Point(i % TileMap.SIZE, i / TileMap.SIZE);
+		}
+	}
+
+	/**
+	 * @param tile
+	 *            the type of {@link mapping.Tile tile} created.
+	 * @return A new {@link mapping.Tile tile} of the type.
+	 */
+	@Benchmark
+	public Tile newTile(TileType tile) {
+		return new Tile(tile.type.equals("_") ? ' ' : tile.type.charAt(0), 1);
+	}
+
+	/**
+	 * @return The amount of passable {@link mapping.Tile tiles} with a
+	 *         message or a chance of an {@link characters.Enemy enemy} on a
+	 *         room, asking about every {@link mapping.Tile tile} as done when
+	 *         moving.
+	 */
+	@Benchmark
+	public int queryTiles() {
+		int out = 0;
+		for (Point cell : cells) {
+			if (map.isPassable(cell) && (map.getMessage(cell) != null || map.getEnemyChance(cell) > 0))
+				out++;
+		}
+		return out;
+	}
+
+	/**
+	 * @return Every {@link mapping.Tile tile} that can be walked to from the
+	 *         corner of the first room.
+	 */
+	@Benchmark
+	public Bitboard getReachable() {
+		return map.getReachable(new Point(1, 1));
+	}
+
+	/**
+	 * @return Where a thousand random steps around the first room end,
+	 *         checking every step against its passable
+	 *         {@link mapping.Tile tiles}.
+	 */
+	@Benchmark
+	public Point simulateMoves() {
+		Bitboard passable = map.getPassable();
+		Point out = new Point(1, 1);
+		int seed = 1;
+		for (int i = 0; i < 1000; i++) {
+			seed = seed * 1103515245 + 12345;
+			int dir = seed >>> 29 & 3;
+			int x = out.x + (dir == 0 ? 1 : dir == 1 ? -1 : 0);
+			int y = out.y + (dir == 2 ? 1 : dir == 3 ? -1 : 0);
+			if (passable.get(x, y))
+				out.setLocation(x, y);
+		}
+		return out;
+	}
+
+	/**
+	 * @return The sum of the levels of the rooms reached by going through a
+	 *         thousand random doors, starting from the first room, as done
+	 *         when leaving a room.
+	 */
+	@Benchmark
+	public int walkWorld() {
+		int room = world.getId("k1");
+		int out = 0;
+		int seed = 1;
+		for (int i = 0; i < 1000; i++) {
+			seed = seed * 1103515245 + 12345;
+			int next = world.getPortal(room, seed >>> 29 & 3);
+			if (next != WorldPack.NONE)
+				room = next;
+			out += world.getLevel(room);
+		}
+		return out;
+	}
+
+	/**
+	 * @return A room without letters or statues, which can be loaded any
+	 *         amount of times.
+	 */
+	@Benchmark
+	public TileMap newTileMap() {
+		return new TileMap("k3");
+	}
+
+	/**
+	 * @return The world file, memory-mapped.
+	 * @throws IOException
+	 *             if the world file cannot be read.
+	 */
+	@Benchmark
+	public WorldPack openWorld() throws IOException {
+		return WorldPack.open(new File("resources/miscellaneous/world.pack"));
+	}
+
+	/**
+	 * @return The world file, compiled from the .map files.
+	 * @throws IOException
+	 *             if a .map file cannot be read.
+	 */
+	@Benchmark
+	public byte[] compileWorld() throws IOException {
+		return WorldPackCompiler.compile(new File("resources/maps"));
+	}
+
+	/**
+	 * @return A new game, before any room is loaded.
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public GameGraphics newGame() {
+		return new GameGraphics();
+	}
+
+	/**
+	 * @return The first frame of a new game, which loads the first room.
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Image newGameFirstFrame() {
+		return new GameGraphics().getMap();
+	}
+
+	/**
+	 * Starts a new battle, which draws a word and checks that it can be
+	 * beaten with the letters of the {@link characters.MainCharacter player}.
+	 */
+	@Benchmark
+	public void initiateBattle() {
+		game.initiateBattle();
+	}
+}
@@ -0,0 +1,22 @@
+/**
+ * This package contains the JMH benchmarks for the hot paths of the game: the
+ * dictionary, the damage calculations of battles and the drawing of the
+ * {@link mapping.TileMap maps}, {@link characters.Enemy enemies} and
+ * inventories.
+ * <p>
+ * The benchmarks read the game resources through the same relative paths as
+ * the game, so they must be run from the root of the repository:
+ * <p>
+ * {@code mvn -f benchmarks/pom.xml package}
+ * <p>
+ * {@code java -jar benchmarks/target/benchmarks.jar -prof gc}
+ * <p>
+ * The GC profiler adds the allocation rate and the bytes allocated per
+ * operation to each result, so changes can be compared to a baseline in both
+ * time and garbage.
+ * 
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ */
+package benchmarks;
@@ -1,8 +1,12 @@
 package characters;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
+import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * <b>Enemy</b> provides use of the unnplayable characters that the
@@ -31,6 +35,26 @@ public class Enemy {
 			{ "Magically Modified Mouse", "Starfish of the Rocks", "Spirit of Cave Worshiper", "Zero Gravity Bat" },
 			{ "Blague Rival of Shutka", "Broma Friend of Shutka", "Nenavist' the God of Hate" } };
 
+	/**
+	 * The amount of tinted {@link java.awt.Image images} kept in
+	 * {@link Enemy#tinted}.
+	 */
+	private final static int TINTED_CACHE_SIZE = 16;
+
+	/**
+	 * The most recently used tinted {@link java.awt.Image images}, by name and
+	 * {@link java.awt.Color color}. The least recently used one is dropped
+	 * once there are more than {@link Enemy#TINTED_CACHE_SIZE}.
+	 */
+	@SuppressWarnings("serial")
+	private final static LinkedHashMap<String, BufferedImage> tinted = new LinkedHashMap<String, BufferedImage>(
+			TINTED_CACHE_SIZE * 2, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, BufferedImage> eldest) {
+			return size() > TINTED_CACHE_SIZE;
+		}
+	};
+
 	/**
 	 * The color of the <b>Enemy</b>, required for battling in level 3.
 	 */
@@ -42,7 +66,8 @@ public class Enemy {
 	private int healthPoints;
 
 	/**
-	 * The visual representation of the <b>Enemy</b>.
+	 * The visual representation of the <b>Enemy</b>, or null if it has not
+	 * been needed yet.
 	 */
 	private Sprite image;
 
@@ -72,7 +97,7 @@ public class Enemy {
 		this.col = col;
 		this.healthPoints = healthPoints;
 		this.name = name;
-		image = new Sprite(name);
+		image = null;
 		newImage = null;
 	}
 
@@ -84,20 +109,28 @@ public class Enemy {
 	}
 
 	/**
-	 * @return The {@link java.awt.Image image} of the <b>Enemy</b>.
+	 * Provides the {@link java.awt.Image image} of the <b>Enemy</b>: its
+	 * {@link Sprite} with a quarter of its pixels in its {@link Enemy#col
+	 * color}. The pixels are chosen by a pattern seeded with the name and
+	 * {@link java.awt.Color color}, so the same <b>Enemy</b> always looks the
+	 * same, and the {@link java.awt.Image image} is shared with every
+	 * <b>Enemy</b> of the same name and {@link java.awt.Color color}.
+	 * 
+	 * @return The {@link java.awt.Image image} of the <b>Enemy</b>. It is
+	 *         shared, so it must not be drawn on.
 	 */
 	public Image drawEnemy() {
 		if (newImage == null) {
-			Image temp = image.drawSprite();
-			newImage = new BufferedImage(temp.getWidth(null), temp.getHeight(null), BufferedImage.TYPE_INT_ARGB);
-
-			for (int i = 0; i < newImage.getWidth(null); i++) {
-				for (int j = 0; j < newImage.getHeight(null); j++) {
-					int pixel = ((BufferedImage) temp).getRGB(i, j);
-					if ((pixel >> 24) != 0x00)
-						((BufferedImage) newImage).setRGB(i, j, (Math.random() < 0.25 ? col.getRGB() : pixel));
-					else
-						((BufferedImage) newImage).setRGB(i, j, new Color(0, 0, 0, 0).getRGB());
+			String key = name + "#" + Integer.toHexString(col.getRGB());
+			synchronized (tinted) {
+				newImage = tinted.get(key);
+				if (newImage == null) {
+					if (image == null)
+						image = new Sprite(name);
+					BufferedImage out = tint(image.drawSprite(), col.getRGB(),
+							((long) name.hashCode() << 32) ^ col.getRGB());
+					tinted.put(key, out);
+					newImage = out;
 				}
 			}
 		}
@@ -105,6 +138,57 @@ public class Enemy {
 		return newImage;
 	}
 
+	/**
+	 * Copies an {@link java.awt.Image image}, replacing some of its visible
+	 * pixels with a {@link java.awt.Color color}. The pixels are processed
+	 * as one int per pixel, straight from the raster.
+	 * 
+	 * @param sprite
+	 *            the {@link java.awt.Image image} being tinted.
+	 * @param argb
+	 *            the ARGB value of the {@link java.awt.Color color}.
+	 * @param seed
+	 *            chooses which pixels are replaced.
+	 * @return The tinted copy.
+	 */
+	private static BufferedImage tint(Image sprite, int argb, long seed) {
+		int width = sprite.getWidth(null);
+		int height = sprite.getHeight(null);
+		BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = out.createGraphics();
+		g.setComposite(AlphaComposite.Src);
+		g.drawImage(sprite, 0, 0, null);
+		g.dispose();
+
+		int[] pixels = (int[]) out.getRaster().getDataElements(0, 0, width, height, null);
+		for (int i = 0; i < pixels.length; i++) {
+			if (pixels[i] >>> 24 == 0)
+				pixels[i] = 0;
+			else if (isTinted(seed, i))
+				pixels[i] = argb;
+		}
+		out.getRaster().setDataElements(0, 0, width, height, pixels);
+		return out;
+	}
+
+	/**
+	 * Decides whether a pixel is tinted, for a quarter of all pixels. The
+	 * choice is a mix of the seed and the position, so it looks random, but
+	 * is always the same for the same seed.
+	 * 
+	 * @param seed
+	 *            the seed of the pattern.
+	 * @param pos
+	 *            the position of the pixel.
+	 * @return Whether the pixel is tinted.
+	 */
+	private static boolean isTinted(long seed, int pos) {
+		long z = seed + pos * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return ((z ^ (z >>> 31)) & 3) == 0;
+	}
+
 	/**
 	 * @return The health of the <b>Enemy</b>.
 	 */
@@ -69,6 +69,12 @@ public class MainCharacter {
 	 */
 	private Point dir;
 
+	/**
+	 * The amount of times the equipped {@link GemInventory.Gem gems} of the
+	 * <b>MainCharacter</b> have changed.
+	 */
+	private int version;
+
 	/**
 	 * Constructs a new <b>MainCharacter</b>.
 	 */
@@ -226,6 +232,7 @@ public class MainCharacter {
 			gems[0] = m;
 		else
 			gems[1] = m;
+		version++;
 	}
 
 	/**
@@ -247,7 +254,7 @@ public class MainCharacter {
 	public Color useSpell(int pos) {
 		if (spellInventory.getSpells().size() <= pos)
 			return null;
-		return spellInventory.getSpells().remove(pos);
+		return spellInventory.useSpell(pos);
 	}
 
 	/**
@@ -259,4 +266,11 @@ public class MainCharacter {
 	public void swapSpells(int pos) {
 		spellInventory.swapSpells(pos);
 	}
+
+	/**
+	 * @return The amount of times the equipped gems have changed.
+	 */
+	public int getVersion() {
+		return version;
+	}
 }
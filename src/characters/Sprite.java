@@ -33,9 +33,7 @@ public class Sprite {
 	 */
 	public Sprite(String name) {
 		try {
-			for (int i = 0; i < 4; i++) {
-				character = ImageIO.read(new File("resources/graphics/characters/" + name + ".png"));
-			}
+			character = ImageIO.read(new File("resources/graphics/characters/" + name + ".png"));
 		} catch (IOException ioe) {
 			System.out.println(name);
 		}
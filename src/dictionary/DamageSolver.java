@@ -0,0 +1,969 @@
+package dictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+
+import frame.DamageAccumulator;
+
+/**
+ * <b>DamageSolver</b> finds the most damage that can be dealt against a word,
+ * using the rules of {@link DamageAccumulator} and a limited amount of each
+ * letter.
+ * <p>
+ * Only words in the dictionary that deal damage are worth writing, and each
+ * can only be written once, so this is a knapsack problem where every word
+ * has a value and takes up some of each letter. The words that can be spelled
+ * are found with a {@link LetterIndex}. The damage of a word only depends on
+ * the letters of the word being fought it uses, so many words are equally
+ * good apart from their other letters. The words are grouped by their damage
+ * and the letters of the word being fought they use, and the search chooses
+ * how many words of each group to write, branch and bound style. Every set of
+ * groups is checked to be spelled with different words from the available
+ * letters, and a set that cannot be spelled is never added to.
+ * <p>
+ * A branch is dropped when it cannot beat the best damage found so far,
+ * using the smaller of two bounds on the damage that can still be added:
+ * <ul>
+ * <li>The letters of the word being fought that are left, spent at the rate
+ * of the best groups left, ignoring which of those letters they need.</li>
+ * <li>The price of the letters of the word being fought that are left. Each
+ * letter is priced at the best damage per letter of the groups using it, so
+ * no word deals more damage than the price of its letters.</li>
+ * </ul>
+ * <p>
+ * A search stops after {@link DamageSolver#TIME_LIMIT} nanoseconds, or the
+ * time limit given, counting the scoring of the words, so the time it takes
+ * is limited. The {@link Solution} then holds the best damage found, and the
+ * bound that the best possible damage cannot exceed.
+ *
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ * @see DamageAccumulator
+ */
+public class DamageSolver {
+	/**
+	 * The longest a search runs before it stops, in nanoseconds.
+	 */
+	public static final long TIME_LIMIT = 8000000;
+
+	/**
+	 * The amount of steps taken between looking at the time.
+	 */
+	private static final int CLOCK_INTERVAL = 1024;
+
+	/**
+	 * The amount of bits after the point in the fixed point prices.
+	 */
+	private static final int PRICE_BITS = 16;
+
+	/**
+	 * <b>Solution</b> is the result of a search by a {@link DamageSolver}.
+	 *
+	 * @author Lev Raizman
+	 * @version 2.0.0.0
+	 *
+	 */
+	public static class Solution {
+		/**
+		 * The words dealing the most damage found.
+		 */
+		private ArrayList<String> words;
+
+		/**
+		 * The total damage of {@link Solution#words}.
+		 */
+		private int damage;
+
+		/**
+		 * The most damage that could possibly be dealt.
+		 */
+		private int upperBound;
+
+		/**
+		 * Creates a <b>Solution</b>.
+		 *
+		 * @param words
+		 *            the words dealing the most damage found.
+		 * @param damage
+		 *            the total damage of the words.
+		 * @param upperBound
+		 *            the most damage that could possibly be dealt.
+		 */
+		public Solution(ArrayList<String> words, int damage, int upperBound) {
+			this.words = words;
+			this.damage = damage;
+			this.upperBound = upperBound;
+		}
+
+		/**
+		 * @return The words dealing the most damage found.
+		 */
+		public ArrayList<String> getWords() {
+			return words;
+		}
+
+		/**
+		 * @return The total damage of the words found, which can always be
+		 *         dealt.
+		 */
+		public int getDamage() {
+			return damage;
+		}
+
+		/**
+		 * @return The most damage that could possibly be dealt.
+		 */
+		public int getUpperBound() {
+			return upperBound;
+		}
+
+		/**
+		 * @return Whether the damage found is known to be the best possible.
+		 */
+		public boolean isOptimal() {
+			return damage == upperBound;
+		}
+	}
+
+	/**
+	 * Finds the words that can be spelled.
+	 */
+	private LetterIndex letters;
+
+	/**
+	 * The positions in {@link DamageSolver#letters} of the words worth writing
+	 * in the current search, listed one group after the other.
+	 */
+	private int[] words;
+
+	/**
+	 * Marks the words sharing a run of 3 letters with the word being fought,
+	 * while scoring the words. It is kept between searches, with no word
+	 * marked.
+	 */
+	private boolean[] sharing;
+
+	/**
+	 * The positions in {@link DamageSolver#letters} of the words dealing
+	 * damage, in the order they are scored.
+	 */
+	private int[] found;
+
+	/**
+	 * The group of each word in {@link DamageSolver#found}.
+	 */
+	private int[] foundGroups;
+
+	/**
+	 * The counts of {@code 'A'} to {@code 'M'} of each word in
+	 * {@link DamageSolver#words}, as packed by {@link LetterIndex}.
+	 */
+	private long[] low;
+
+	/**
+	 * The counts of {@code 'N'} to {@code 'Z'} of each word in
+	 * {@link DamageSolver#words}, as packed by {@link LetterIndex}.
+	 */
+	private long[] high;
+
+	/**
+	 * The position in {@link DamageSolver#words} of the first word of each
+	 * group, in order of damage per letter of the word being fought.
+	 */
+	private int[] groupStart;
+
+	/**
+	 * The damage of each word of each group.
+	 */
+	private int[] groupValues;
+
+	/**
+	 * The amount of each of {@link DamageSolver#targetLetters} used by each
+	 * word of each group, packed 4 bits each like {@link LetterIndex} does.
+	 */
+	private long[] groupProfiles;
+
+	/**
+	 * The smallest count of each of {@code 'A'} to {@code 'M'} among the words
+	 * of each group, as packed by {@link LetterIndex}.
+	 */
+	private long[] groupMinLow;
+
+	/**
+	 * The smallest count of each of {@code 'N'} to {@code 'Z'} among the words
+	 * of each group, as packed by {@link LetterIndex}.
+	 */
+	private long[] groupMinHigh;
+
+	/**
+	 * The amount of letters of the word being fought used by each word of
+	 * each group.
+	 */
+	private int[] groupTargets;
+
+	/**
+	 * The price of the letters of the word being fought used by each word of
+	 * each group, in the units of {@link DamageSolver#letterPrices}.
+	 */
+	private long[] groupCosts;
+
+	/**
+	 * The total damage of every word of the groups before each group.
+	 */
+	private long[] valueSums;
+
+	/**
+	 * The total amount of letters of the word being fought used by every word
+	 * of the groups before each group.
+	 */
+	private long[] targetSums;
+
+	/**
+	 * Finds the groups by the letters of the word being fought their words
+	 * use, holding each group's position in {@link DamageSolver#keyLow} plus
+	 * 1, or 0 for an empty slot.
+	 */
+	private int[] tableIds;
+
+	/**
+	 * The packed counts of {@code 'A'} to {@code 'M'} of the word being fought
+	 * used by the words of each group found by
+	 * {@link DamageSolver#findGroup(long, long, int)}.
+	 */
+	private long[] keyLow;
+
+	/**
+	 * The packed counts of {@code 'N'} to {@code 'Z'} of the word being fought
+	 * used by the words of each group found by
+	 * {@link DamageSolver#findGroup(long, long, int)}.
+	 */
+	private long[] keyHigh;
+
+	/**
+	 * The damage of the words of each group sharing a substring with the word
+	 * being fought, or minus the damage of each group scored by common
+	 * letters.
+	 */
+	private int[] keyTags;
+
+	/**
+	 * The amount of groups found by
+	 * {@link DamageSolver#findGroup(long, long, int)}.
+	 */
+	private int keyCount;
+
+	/**
+	 * The letters of the word being fought, each listed once, from
+	 * {@code 'A'} = 0.
+	 */
+	private int[] targetLetters;
+
+	/**
+	 * The price of each of {@link DamageSolver#targetLetters}, as a fixed point
+	 * number with {@link DamageSolver#PRICE_BITS} bits after the point.
+	 */
+	private long[] letterPrices;
+
+	/**
+	 * The packed counts of {@code 'A'} to {@code 'M'} available to the current
+	 * search.
+	 */
+	private long rootLow;
+
+	/**
+	 * The packed counts of {@code 'N'} to {@code 'Z'} available to the current
+	 * search.
+	 */
+	private long rootHigh;
+
+	/**
+	 * The positions of the words chosen in the current branch.
+	 */
+	private int[] chosen;
+
+	/**
+	 * The group of each word in {@link DamageSolver#chosen}.
+	 */
+	private int[] chosenGroups;
+
+	/**
+	 * The positions of the words in the best solution found.
+	 */
+	private int[] best;
+
+	/**
+	 * The amount of words in {@link DamageSolver#best}.
+	 */
+	private int bestCount;
+
+	/**
+	 * The damage of the best solution found.
+	 */
+	private int bestDamage;
+
+	/**
+	 * The highest bound of the branches dropped because the time ran out.
+	 */
+	private long unresolved;
+
+	/**
+	 * The amount of steps taken by the current search, counting the words
+	 * scored.
+	 */
+	private int steps;
+
+	/**
+	 * The value of {@link System#nanoTime()} at which the current search
+	 * stops.
+	 */
+	private long deadline;
+
+	/**
+	 * Whether the current search has passed {@link DamageSolver#deadline}.
+	 */
+	private boolean stopped;
+
+	/**
+	 * Creates a <b>DamageSolver</b>.
+	 *
+	 * @param letters
+	 *            finds the words in the dictionary that can be spelled.
+	 */
+	public DamageSolver(LetterIndex letters) {
+		this.letters = letters;
+	}
+
+	/**
+	 * Finds the words dealing the most damage against damageWord, taking at
+	 * most {@link DamageSolver#TIME_LIMIT} nanoseconds.
+	 *
+	 * @param damageWord
+	 *            the word the user is fighting against.
+	 * @param available
+	 *            the amount of each letter that can be used, starting from
+	 *            {@code 'A'}.
+	 * @param weaponDamage
+	 *            the damage of the equipped weapon, including its
+	 *            {@link items.GemInventory.Gem gem}.
+	 * @return The best words found, their damage and the most damage that
+	 *         could possibly be dealt.
+	 */
+	public Solution solve(String damageWord, int[] available, int weaponDamage) {
+		return solve(damageWord, available, weaponDamage, TIME_LIMIT);
+	}
+
+	/**
+	 * Finds the words dealing the most damage against damageWord.
+	 *
+	 * @param damageWord
+	 *            the word the user is fighting against.
+	 * @param available
+	 *            the amount of each letter that can be used, starting from
+	 *            {@code 'A'}.
+	 * @param weaponDamage
+	 *            the damage of the equipped weapon, including its
+	 *            {@link items.GemInventory.Gem gem}.
+	 * @param timeLimit
+	 *            the longest the search may take, in nanoseconds.
+	 * @return The best words found, their damage and the most damage that
+	 *         could possibly be dealt.
+	 */
+	public synchronized Solution solve(String damageWord, int[] available, int weaponDamage, long timeLimit) {
+		deadline = System.nanoTime() + timeLimit;
+		stopped = false;
+		steps = 0;
+		int capacity = 0;
+		int targetsLeft = 0;
+		for (int i = 0; i < 26; i++) {
+			capacity += Math.max(0, available[i]);
+		}
+		rootLow = LetterIndex.pack(available, 0);
+		rootHigh = LetterIndex.pack(available, 13);
+		findTargets(damageWord);
+		long supply = 0;
+		for (int i = 0; i < targetLetters.length; i++) {
+			int count = Math.min(15, Math.max(0, available[targetLetters[i]]));
+			supply |= (long) count << (i * 4);
+			targetsLeft += count;
+		}
+		bestCount = 0;
+		bestDamage = 0;
+		unresolved = 0;
+
+		prepare(damageWord, Math.min(capacity, 13), weaponDamage);
+		long pricedLeft = stopped ? 0 : choosePrices(supply);
+		if (stopped) {
+			// The words were not all scored and grouped, so the bound can only
+			// come from the most damage a word could deal. Every word dealing damage
+			// uses at least 3 of the letters of the word being fought.
+			unresolved = (long) (targetsLeft / 3)
+					* DamageAccumulator.getWordDamage(damageWord.length(), 0, weaponDamage);
+		} else {
+			chosen = new int[targetsLeft / 3 + 1];
+			chosenGroups = new int[chosen.length];
+			best = new int[chosen.length];
+			search(0, 0, 0, rootLow, rootHigh, supply, targetsLeft, pricedLeft);
+		}
+
+		ArrayList<String> out = new ArrayList<String>();
+		for (int i = 0; i < bestCount; i++) {
+			out.add(letters.getWord(words[best[i]]));
+		}
+		return new Solution(out, bestDamage, (int) Math.max(bestDamage, unresolved));
+	}
+
+	/**
+	 * Scores every word that can be spelled, and groups the ones that deal
+	 * damage by their damage and the letters of damageWord they use. The
+	 * groups are sorted by damage per letter of damageWord.
+	 * <p>
+	 * The common letters of a word only depend on the letters of damageWord
+	 * it uses, so the words not sharing a substring with damageWord are
+	 * grouped first and only scored once per group.
+	 *
+	 * @param damageWord
+	 *            the word the user is fighting against.
+	 * @param maxLength
+	 *            the longest word that can be spelled.
+	 * @param weaponDamage
+	 *            the damage of the equipped weapon.
+	 */
+	private void prepare(String damageWord, int maxLength, int weaponDamage) {
+		WordScorer scorer = new WordScorer(damageWord);
+		if (sharing == null) {
+			sharing = new boolean[letters.size()];
+			found = new int[letters.size()];
+			foundGroups = new int[letters.size()];
+		}
+		int count = 0;
+		long maskLow = 0;
+		long maskHigh = 0;
+		for (int letter : targetLetters) {
+			if (letter < 13)
+				maskLow |= 0xFL << (letter * 4);
+			else
+				maskHigh |= 0xFL << ((letter - 13) * 4);
+		}
+		tableIds = new int[256];
+		keyLow = new long[64];
+		keyHigh = new long[64];
+		keyTags = new int[64];
+		keyCount = 0;
+
+		// Only words sharing a run of 3 letters can share a longer substring,
+		// so the other words are scored by their common letters alone.
+		int[] substrings = letters.findSubstrings(damageWord);
+		for (int i : substrings) {
+			sharing[i] = true;
+			if (outOfTime())
+				continue;
+			int length = letters.getLength(i);
+			if (length > maxLength || !LetterIndex.fits(letters.getLow(i), rootLow)
+					|| !LetterIndex.fits(letters.getHigh(i), rootHigh))
+				continue;
+			int substrLen = letters.longestSubstr(i, length, scorer);
+			// Only the word itself shares all its letters in a row.
+			if (substrLen == length && length == damageWord.length())
+				continue;
+			int value = DamageAccumulator.getWordDamage(substrLen, 0, weaponDamage);
+			if (value > 0) {
+				found[count] = i;
+				foundGroups[count++] = findGroup(letters.getLow(i) & maskLow, letters.getHigh(i) & maskHigh, value);
+			}
+		}
+
+		count = scoreCommon(scorer, count, maskLow, maskHigh, maxLength, weaponDamage);
+		for (int i : substrings) {
+			sharing[i] = false;
+		}
+		if (stopped)
+			return;
+
+		final int[] keyValues = new int[keyCount];
+		final int[] keyTargets = new int[keyCount];
+		long[] keyProfiles = new long[keyCount];
+		ArrayList<Integer> order = new ArrayList<Integer>();
+		for (int i = 0; i < keyCount; i++) {
+			keyValues[i] = Math.abs(keyTags[i]);
+			long profile = profile(keyLow[i], keyHigh[i]);
+			for (int j = 0; j < targetLetters.length; j++) {
+				keyTargets[i] += (profile >>> (j * 4)) & 0xF;
+			}
+			keyProfiles[i] = profile;
+			if (keyValues[i] > 0)
+				order.add(i);
+		}
+		Collections.sort(order, new Comparator<Integer>() {
+			public int compare(Integer a, Integer b) {
+				// Compares damage per letter without dividing.
+				long left = (long) keyValues[a] * keyTargets[b];
+				long right = (long) keyValues[b] * keyTargets[a];
+				if (left != right)
+					return left > right ? -1 : 1;
+				return keyValues[b] - keyValues[a];
+			}
+		});
+
+		int[] rank = new int[keyCount];
+		int[] sizes = new int[order.size()];
+		for (int i = 0; i < order.size(); i++) {
+			rank[order.get(i)] = i;
+		}
+		for (int i = 0; i < count && !outOfTime(); i++) {
+			sizes[rank[foundGroups[i]]]++;
+		}
+		groupStart = new int[order.size() + 1];
+		groupValues = new int[order.size()];
+		groupProfiles = new long[order.size()];
+		groupTargets = new int[order.size()];
+		valueSums = new long[order.size() + 1];
+		targetSums = new long[order.size() + 1];
+		for (int i = 0; i < order.size(); i++) {
+			int key = order.get(i);
+			groupStart[i + 1] = groupStart[i] + sizes[i];
+			groupValues[i] = keyValues[key];
+			groupProfiles[i] = keyProfiles[key];
+			groupTargets[i] = keyTargets[key];
+			valueSums[i + 1] = valueSums[i] + (long) groupValues[i] * sizes[i];
+			targetSums[i + 1] = targetSums[i] + (long) groupTargets[i] * sizes[i];
+		}
+
+		int[] next = Arrays.copyOf(groupStart, order.size());
+		words = new int[count];
+		low = new long[count];
+		high = new long[count];
+		for (int i = 0; i < count && !outOfTime(); i++) {
+			int pos = next[rank[foundGroups[i]]]++;
+			words[pos] = found[i];
+			low[pos] = letters.getLow(found[i]);
+			high[pos] = letters.getHigh(found[i]);
+		}
+
+		groupMinLow = new long[order.size()];
+		groupMinHigh = new long[order.size()];
+		for (int i = 0; i < order.size(); i++) {
+			groupMinLow[i] = low[groupStart[i]];
+			groupMinHigh[i] = high[groupStart[i]];
+			for (int j = groupStart[i] + 1; j < groupStart[i + 1] && !outOfTime(); j++) {
+				groupMinLow[i] = LetterIndex.min(groupMinLow[i], low[j]);
+				groupMinHigh[i] = LetterIndex.min(groupMinHigh[i], high[j]);
+			}
+		}
+	}
+
+	/**
+	 * Scores the words not sharing a run of 3 letters with the word being
+	 * fought by their common letters, and adds the ones dealing damage to
+	 * {@link DamageSolver#found}. Groups of common letters are tagged with no
+	 * damage until they are scored.
+	 *
+	 * @param scorer
+	 *            compares words with the word being fought.
+	 * @param count
+	 *            the amount of words found so far.
+	 * @param maskLow
+	 *            selects the lanes of the letters of the word being fought
+	 *            from {@code 'A'} to {@code 'M'}.
+	 * @param maskHigh
+	 *            selects the lanes of the letters of the word being fought
+	 *            from {@code 'N'} to {@code 'Z'}.
+	 * @param maxLength
+	 *            the longest word that can be spelled.
+	 * @param weaponDamage
+	 *            the damage of the equipped weapon.
+	 * @return The amount of words found.
+	 */
+	private int scoreCommon(WordScorer scorer, int count, long maskLow, long maskHigh, int maxLength,
+			int weaponDamage) {
+		boolean[] worthless = new boolean[keyTags.length];
+		long availableLow = rootLow;
+		long availableHigh = rootHigh;
+		int last = letters.getFirst(maxLength + 1);
+		for (int i = letters.getFirst(3); i < last; i++) {
+			if (outOfTime())
+				break;
+			long wordLow = letters.getLow(i);
+			long wordHigh = letters.getHigh(i);
+			if (!LetterIndex.fits(wordLow, availableLow) || !LetterIndex.fits(wordHigh, availableHigh) || sharing[i])
+				continue;
+			int known = keyCount;
+			int group = findGroup(wordLow & maskLow, wordHigh & maskHigh, 0);
+			if (group == known) {
+				if (worthless.length < keyTags.length)
+					worthless = Arrays.copyOf(worthless, keyTags.length);
+				keyTags[group] = -DamageAccumulator.getWordDamage(2,
+						scorer.commonLetters(keyLow[group], keyHigh[group]), weaponDamage);
+				worthless[group] = keyTags[group] == 0;
+			}
+			if (!worthless[group]) {
+				found[count] = i;
+				foundGroups[count++] = group;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Finds the group of the words using the letters of the word being fought
+	 * given, adding a new group if there is none yet.
+	 *
+	 * @param low
+	 *            the packed counts of {@code 'A'} to {@code 'M'} of the word
+	 *            being fought used.
+	 * @param high
+	 *            the packed counts of {@code 'N'} to {@code 'Z'} of the word
+	 *            being fought used.
+	 * @param tag
+	 *            the damage of the words if they share a substring with the
+	 *            word being fought, or 0 otherwise.
+	 * @return The position of the group in {@link DamageSolver#keyLow}.
+	 */
+	private int findGroup(long low, long high, int tag) {
+		int mask = tableIds.length - 1;
+		long hash = (low * 0x9E3779B97F4A7C15L) ^ (high * 0xC2B2AE3D27D4EB4FL) ^ tag;
+		int slot = (int) (hash ^ (hash >>> 32)) & mask;
+		while (tableIds[slot] != 0) {
+			int id = tableIds[slot] - 1;
+			// Scored groups of common letters have a negative tag.
+			if (keyLow[id] == low && keyHigh[id] == high && (tag > 0 ? keyTags[id] == tag : keyTags[id] <= 0))
+				return id;
+			slot = (slot + 1) & mask;
+		}
+
+		if (keyCount == keyLow.length) {
+			keyLow = Arrays.copyOf(keyLow, keyCount * 2);
+			keyHigh = Arrays.copyOf(keyHigh, keyCount * 2);
+			keyTags = Arrays.copyOf(keyTags, keyCount * 2);
+		}
+		keyLow[keyCount] = low;
+		keyHigh[keyCount] = high;
+		keyTags[keyCount] = tag;
+		tableIds[slot] = ++keyCount;
+		if (keyCount * 2 > tableIds.length)
+			rehash();
+		return keyCount - 1;
+	}
+
+	/**
+	 * Doubles the size of {@link DamageSolver#tableIds} and places every group
+	 * in it again.
+	 */
+	private void rehash() {
+		tableIds = new int[tableIds.length * 2];
+		int mask = tableIds.length - 1;
+		for (int i = 0; i < keyCount; i++) {
+			long hash = (keyLow[i] * 0x9E3779B97F4A7C15L) ^ (keyHigh[i] * 0xC2B2AE3D27D4EB4FL)
+					^ Math.max(0, keyTags[i]);
+			int slot = (int) (hash ^ (hash >>> 32)) & mask;
+			while (tableIds[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			tableIds[slot] = i + 1;
+		}
+	}
+
+	/**
+	 * Tries every way of adding words from the groups from first onwards to
+	 * the current branch.
+	 *
+	 * @param first
+	 *            the first group that words can still be added from.
+	 * @param depth
+	 *            the amount of words chosen in the current branch.
+	 * @param damage
+	 *            the damage of the words chosen in the current branch.
+	 * @param availableLow
+	 *            the packed counts of {@code 'A'} to {@code 'M'} left.
+	 * @param availableHigh
+	 *            the packed counts of {@code 'N'} to {@code 'Z'} left.
+	 * @param supply
+	 *            the amount of each of {@link DamageSolver#targetLetters}
+	 *            left, packed like {@link DamageSolver#groupProfiles}.
+	 * @param targetsLeft
+	 *            the amount of letters of the word being fought left.
+	 * @param pricedLeft
+	 *            the price of the letters of the word being fought left.
+	 */
+	private void search(int first, int depth, int damage, long availableLow, long availableHigh, long supply,
+			int targetsLeft, long pricedLeft) {
+		if (damage > bestDamage) {
+			bestDamage = damage;
+			bestCount = depth;
+			System.arraycopy(chosen, 0, best, 0, depth);
+		}
+
+		long priceBound = pricedLeft >> PRICE_BITS;
+		if (damage + priceBound <= bestDamage)
+			return;
+
+		for (int g = first; g < groupValues.length; g++) {
+			if (outOfTime()) {
+				unresolved = Math.max(unresolved, damage + Math.min(priceBound, bound(g, targetsLeft)));
+				return;
+			}
+			if (!LetterIndex.fits(groupProfiles[g], supply))
+				continue;
+			long bound = damage + Math.min(priceBound, bound(g, targetsLeft));
+			// The bound only shrinks as groups are skipped, so no later group
+			// can do better either.
+			if (bound <= bestDamage)
+				return;
+
+			// The words of a group are added in their order, so that each set
+			// of them is only tried once.
+			chosenGroups[depth] = g;
+			int word = depth > 0 && chosenGroups[depth - 1] == g ? chosen[depth - 1] + 1 : groupStart[g];
+			while (word < groupStart[g + 1]
+					&& (!LetterIndex.fits(low[word], availableLow) || !LetterIndex.fits(high[word], availableHigh))) {
+				word++;
+			}
+			// Neither subtraction borrows, since the words fit.
+			if (word < groupStart[g + 1]) {
+				chosen[depth] = word;
+				search(g, depth + 1, damage + groupValues[g], availableLow - low[word], availableHigh - high[word],
+						supply - groupProfiles[g], targetsLeft - groupTargets[g], pricedLeft - groupCosts[g]);
+				continue;
+			}
+
+			// The words chosen so far leave no room for the group, but other
+			// words of the same groups might.
+			int[] spelled = new int[depth + 1];
+			if (!spell(depth + 1, spelled)) {
+				if (stopped) {
+					unresolved = Math.max(unresolved, bound);
+					return;
+				}
+				continue;
+			}
+			int[] saved = Arrays.copyOf(chosen, depth);
+			long spelledLow = rootLow;
+			long spelledHigh = rootHigh;
+			for (int i = 0; i <= depth; i++) {
+				chosen[i] = spelled[i];
+				spelledLow -= low[spelled[i]];
+				spelledHigh -= high[spelled[i]];
+			}
+			search(g, depth + 1, damage + groupValues[g], spelledLow, spelledHigh, supply - groupProfiles[g],
+					targetsLeft - groupTargets[g], pricedLeft - groupCosts[g]);
+			System.arraycopy(saved, 0, chosen, 0, depth);
+			chosenGroups[depth] = g;
+		}
+	}
+
+	/**
+	 * Chooses different words for the groups in
+	 * {@link DamageSolver#chosenGroups} that can all be spelled together.
+	 *
+	 * @param count
+	 *            the amount of words to choose.
+	 * @param spelled
+	 *            receives the positions of the words chosen.
+	 * @return Whether the words could be chosen. The search may also have
+	 *         stopped, in which case it is not known.
+	 */
+	private boolean spell(int count, int[] spelled) {
+		// Each group needs at least the letters all its words have, so the
+		// groups after each word need at least the sum of those.
+		int[] needed = new int[26];
+		long[] neededLow = new long[count + 1];
+		long[] neededHigh = new long[count + 1];
+		for (int i = count - 1; i >= 0; i--) {
+			int g = chosenGroups[i];
+			for (int letter = 0; letter < 26; letter++) {
+				long lanes = letter < 13 ? groupMinLow[g] : groupMinHigh[g];
+				needed[letter] += (lanes >>> ((letter % 13) * 4)) & 0xF;
+				if (needed[letter] > 15)
+					return false;
+			}
+			neededLow[i] = LetterIndex.pack(needed, 0);
+			neededHigh[i] = LetterIndex.pack(needed, 13);
+		}
+		if (!LetterIndex.fits(neededLow[0], rootLow) || !LetterIndex.fits(neededHigh[0], rootHigh))
+			return false;
+		return spell(0, count, rootLow, rootHigh, spelled, neededLow, neededHigh);
+	}
+
+	/**
+	 * Chooses the words of {@link DamageSolver#spell(int, int[])} from depth
+	 * onwards.
+	 *
+	 * @param depth
+	 *            the amount of words chosen so far.
+	 * @param count
+	 *            the amount of words to choose.
+	 * @param availableLow
+	 *            the packed counts of {@code 'A'} to {@code 'M'} left.
+	 * @param availableHigh
+	 *            the packed counts of {@code 'N'} to {@code 'Z'} left.
+	 * @param spelled
+	 *            receives the positions of the words chosen.
+	 * @param neededLow
+	 *            the packed counts of {@code 'A'} to {@code 'M'} needed by the
+	 *            groups from each word onwards.
+	 * @param neededHigh
+	 *            the packed counts of {@code 'N'} to {@code 'Z'} needed by the
+	 *            groups from each word onwards.
+	 * @return Whether the words could be chosen.
+	 */
+	private boolean spell(int depth, int count, long availableLow, long availableHigh, int[] spelled,
+			long[] neededLow, long[] neededHigh) {
+		if (depth == count)
+			return true;
+		int g = chosenGroups[depth];
+		int word = depth > 0 && chosenGroups[depth - 1] == g ? spelled[depth - 1] + 1 : groupStart[g];
+		for (; word < groupStart[g + 1]; word++) {
+			if (outOfTime())
+				return false;
+			if (!LetterIndex.fits(low[word], availableLow) || !LetterIndex.fits(high[word], availableHigh))
+				continue;
+			// Neither subtraction borrows, since the word fits.
+			long leftLow = availableLow - low[word];
+			long leftHigh = availableHigh - high[word];
+			if (!LetterIndex.fits(neededLow[depth + 1], leftLow) || !LetterIndex.fits(neededHigh[depth + 1], leftHigh))
+				continue;
+			spelled[depth] = word;
+			if (spell(depth + 1, count, leftLow, leftHigh, spelled, neededLow, neededHigh))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Finds the most damage the groups from first onwards could deal with the
+	 * letters of the word being fought left, if only the total amount of them
+	 * mattered and part of a word could be used.
+	 *
+	 * @param first
+	 *            the first group that can be used.
+	 * @param targetsLeft
+	 *            the amount of letters of the word being fought left.
+	 * @return A bound on the damage that can still be added.
+	 */
+	private long bound(int first, int targetsLeft) {
+		long limit = targetSums[first] + targetsLeft;
+		int lo = first;
+		int hi = groupValues.length;
+		// Finds the last group whose groups before it all fit in the letters.
+		while (lo < hi) {
+			int mid = (lo + hi + 1) >>> 1;
+			if (targetSums[mid] <= limit)
+				lo = mid;
+			else
+				hi = mid - 1;
+		}
+		long out = valueSums[lo] - valueSums[first];
+		if (lo < groupValues.length)
+			out += (limit - targetSums[lo]) * groupValues[lo] / groupTargets[lo];
+		return out;
+	}
+
+	/**
+	 * @param low
+	 *            the packed counts of {@code 'A'} to {@code 'M'} of a word.
+	 * @param high
+	 *            the packed counts of {@code 'N'} to {@code 'Z'} of a word.
+	 * @return The amount of each of {@link DamageSolver#targetLetters} the
+	 *         word uses, packed 4 bits each.
+	 */
+	private long profile(long low, long high) {
+		long out = 0;
+		for (int j = 0; j < targetLetters.length; j++) {
+			out |= (long) targetsUsed(low, high, j) << (j * 4);
+		}
+		return out;
+	}
+
+	/**
+	 * Lists the letters of damageWord in {@link DamageSolver#targetLetters}.
+	 * Words fought against are at most
+	 * 13 letters long, so the letters of damageWord used by a word always fit
+	 * in the 16 lanes of a long.
+	 *
+	 * @param damageWord
+	 *            the word the user is fighting against.
+	 */
+	private void findTargets(String damageWord) {
+		int[] counts = new int[26];
+		int slots = 0;
+		for (int i = 0; i < damageWord.length(); i++) {
+			int letter = damageWord.charAt(i) - 'A';
+			if (letter >= 0 && letter < 26 && counts[letter]++ == 0)
+				slots++;
+		}
+		targetLetters = new int[slots];
+		slots = 0;
+		for (int letter = 0; letter < 26; letter++) {
+			if (counts[letter] > 0)
+				targetLetters[slots++] = letter;
+		}
+	}
+
+	/**
+	 * @param low
+	 *            the packed counts of {@code 'A'} to {@code 'M'} of a word.
+	 * @param high
+	 *            the packed counts of {@code 'N'} to {@code 'Z'} of a word.
+	 * @param slot
+	 *            the position of a letter in {@link DamageSolver#targetLetters}.
+	 * @return The amount of times the word uses that letter.
+	 */
+	private int targetsUsed(long low, long high, int slot) {
+		int letter = targetLetters[slot];
+		return (int) (((letter < 13 ? low : high) >>> ((letter % 13) * 4)) & 0xF);
+	}
+
+	/**
+	 * Chooses {@link DamageSolver#letterPrices} so that no word deals more
+	 * damage than the price of the letters of the word being fought it uses.
+	 * Each letter is priced at the best damage per letter of the groups using
+	 * it, rounded up, which is found from the first group using it since the
+	 * groups are sorted by damage per letter.
+	 *
+	 * @param supply
+	 *            the amount of each of {@link DamageSolver#targetLetters}
+	 *            available, packed like {@link DamageSolver#groupProfiles}.
+	 * @return The price of the letters of the word being fought available.
+	 */
+	private long choosePrices(long supply) {
+		int slots = targetLetters.length;
+		letterPrices = new long[slots];
+		int priced = 0;
+		for (int i = 0; i < groupValues.length && priced < slots && !outOfTime(); i++) {
+			long rate = (((long) groupValues[i] << PRICE_BITS) + groupTargets[i] - 1) / groupTargets[i];
+			for (int j = 0; j < slots; j++) {
+				if (letterPrices[j] == 0 && ((groupProfiles[i] >>> (j * 4)) & 0xF) != 0) {
+					letterPrices[j] = rate;
+					priced++;
+				}
+			}
+		}
+
+		groupCosts = new long[groupValues.length];
+		for (int i = 0; i < groupCosts.length; i++) {
+			for (int j = 0; j < slots; j++) {
+				groupCosts[i] += letterPrices[j] * ((groupProfiles[i] >>> (j * 4)) & 0xF);
+			}
+		}
+		long out = 0;
+		for (int j = 0; j < slots; j++) {
+			out += letterPrices[j] * ((supply >>> (j * 4)) & 0xF);
+		}
+		return out;
+	}
+
+	/**
+	 * Counts a step of the current search, and looks at the time every
+	 * {@link DamageSolver#CLOCK_INTERVAL} steps.
+	 *
+	 * @return Whether the current search has passed
+	 *         {@link DamageSolver#deadline}.
+	 */
+	private boolean outOfTime() {
+		if (!stopped && ++steps % CLOCK_INTERVAL == 0 && System.nanoTime() > deadline)
+			stopped = true;
+		return stopped;
+	}
+}
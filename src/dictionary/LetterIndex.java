@@ -0,0 +1,432 @@
+package dictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * <b>LetterIndex</b> answers which words of a {@link Lexicon} can be spelled
+ * with a limited amount of each letter, regardless of the order of the
+ * letters.
+ * <p>
+ * Every word is stored as its letter counts, one 4-bit lane per letter, packed
+ * into two longs: {@code 'A'} to {@code 'M'} in one and {@code 'N'} to
+ * {@code 'Z'} in the other. The available letters are packed the same way, and
+ * a word can be spelled if none of its lanes is larger than the matching lane
+ * of the available letters. That check is done for every lane at once, by
+ * splitting the lanes into every other lane so that each has 4 free bits above
+ * it to detect a borrow in.
+ * <p>
+ * The words are grouped by length, so length limits skip whole groups, and
+ * words longer than the amount of available letters are never checked. The
+ * letters of the words are kept as well, one byte each, so that words can be
+ * read and scored by their position without going through the {@link Lexicon}.
+ * <p>
+ * Every run of 3 letters also lists the words containing it, which finds the
+ * few words sharing a substring of at least 3 letters with a word without
+ * checking every word.
+ *
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ */
+public class LetterIndex {
+	/**
+	 * Selects every other 4-bit lane.
+	 */
+	private static final long EVEN_LANES = 0x0F0F0F0F0F0F0F0FL;
+
+	/**
+	 * The bit above each lane selected by {@link LetterIndex#EVEN_LANES}.
+	 */
+	private static final long GUARDS = 0x1010101010101010L;
+
+	/**
+	 * Stored for words with a letter used more than 15 times. Its unused top
+	 * lanes are set, which packed available letters never have, so it never
+	 * fits.
+	 */
+	private static final long IMPOSSIBLE = -1L;
+
+	/**
+	 * The letters of every word, one after the other, in the same order as
+	 * {@link LetterIndex#low}.
+	 */
+	private byte[] text;
+
+	/**
+	 * The positions of the words containing each run of 3 letters, listed one
+	 * run after the other. A run is numbered by reading its letters as a base
+	 * 26 number.
+	 */
+	private int[] trigramWords;
+
+	/**
+	 * The position in {@link LetterIndex#trigramWords} of the first word of
+	 * each run of 3 letters.
+	 */
+	private int[] trigramStart;
+
+	/**
+	 * The position in {@link LetterIndex#text} of the first word of each
+	 * length. Words of one length all take the same space, so the position of
+	 * any word can be found from it.
+	 */
+	private int[] textStart;
+
+	/**
+	 * The counts of {@code 'A'} to {@code 'M'} of every word.
+	 */
+	private long[] low;
+
+	/**
+	 * The counts of {@code 'N'} to {@code 'Z'} of every word.
+	 */
+	private long[] high;
+
+	/**
+	 * The position of the first word of each length in
+	 * {@link LetterIndex#low} and {@link LetterIndex#high}. The words of a
+	 * length are in the same order as {@link Lexicon#getWord(int, int)}.
+	 */
+	private int[] lengthStart;
+
+	/**
+	 * Creates a <b>LetterIndex</b> of all the words in lexicon.
+	 *
+	 * @param lexicon
+	 *            the {@link Lexicon} the words are copied from.
+	 */
+	public LetterIndex(Lexicon lexicon) {
+		lengthStart = new int[TrieLexicon.MAX_LENGTH + 2];
+		textStart = new int[TrieLexicon.MAX_LENGTH + 2];
+		for (int i = 0; i <= TrieLexicon.MAX_LENGTH; i++) {
+			lengthStart[i + 1] = lengthStart[i] + lexicon.size(i);
+			textStart[i + 1] = textStart[i] + lexicon.size(i) * i;
+		}
+		text = new byte[textStart[TrieLexicon.MAX_LENGTH + 1]];
+
+		low = new long[lengthStart[TrieLexicon.MAX_LENGTH + 1]];
+		high = new long[low.length];
+		int[] counts = new int[26];
+		for (int length = 0; length <= TrieLexicon.MAX_LENGTH; length++) {
+			for (int i = 0; i < lexicon.size(length); i++) {
+				String word = lexicon.getWord(length, i);
+				for (int j = 0; j < 26; j++) {
+					counts[j] = 0;
+				}
+				for (int j = 0; j < word.length(); j++) {
+					counts[word.charAt(j) - 'A']++;
+					text[textStart[length] + i * length + j] = (byte) word.charAt(j);
+				}
+				low[lengthStart[length] + i] = pack(counts, 0);
+				high[lengthStart[length] + i] = pack(counts, 13);
+				for (int j = 0; j < 26; j++) {
+					if (counts[j] > 15)
+						low[lengthStart[length] + i] = IMPOSSIBLE;
+				}
+			}
+		}
+		indexTrigrams();
+	}
+
+	/**
+	 * Lists the words containing each run of 3 letters in
+	 * {@link LetterIndex#trigramWords}.
+	 */
+	private void indexTrigrams() {
+		trigramStart = new int[26 * 26 * 26 + 1];
+		for (int length = 3; length <= TrieLexicon.MAX_LENGTH; length++) {
+			for (int i = textStart[length]; i < textStart[length + 1]; i += length) {
+				for (int j = 0; j + 3 <= length; j++) {
+					trigramStart[trigram(text, i + j) + 1]++;
+				}
+			}
+		}
+		for (int i = 0; i < 26 * 26 * 26; i++) {
+			trigramStart[i + 1] += trigramStart[i];
+		}
+
+		trigramWords = new int[trigramStart[26 * 26 * 26]];
+		int[] next = trigramStart.clone();
+		for (int length = 3; length <= TrieLexicon.MAX_LENGTH; length++) {
+			int position = lengthStart[length];
+			for (int i = textStart[length]; i < textStart[length + 1]; i += length) {
+				for (int j = 0; j + 3 <= length; j++) {
+					trigramWords[next[trigram(text, i + j)]++] = position;
+				}
+				position++;
+			}
+		}
+	}
+
+	/**
+	 * Counts the words that can be spelled with the available letters.
+	 *
+	 * @param available
+	 *            the amount of each letter available, starting from
+	 *            {@code 'A'}.
+	 * @param minLength
+	 *            the shortest word allowed.
+	 * @param maxLength
+	 *            the longest word allowed.
+	 * @return The amount of words that can be spelled.
+	 */
+	public int count(int[] available, int minLength, int maxLength) {
+		long availableLow = pack(available, 0);
+		long availableHigh = pack(available, 13);
+		int out = 0;
+
+		for (int length = Math.max(0, minLength); length <= limit(available, maxLength); length++) {
+			for (int i = lengthStart[length]; i < lengthStart[length + 1]; i++) {
+				if (fits(low[i], availableLow) && fits(high[i], availableHigh))
+					out++;
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Finds the words that can be spelled with the available letters.
+	 *
+	 * @param available
+	 *            the amount of each letter available, starting from
+	 *            {@code 'A'}.
+	 * @param minLength
+	 *            the shortest word allowed.
+	 * @param maxLength
+	 *            the longest word allowed.
+	 * @return The words that can be spelled, from shortest to longest.
+	 */
+	public ArrayList<String> getWords(int[] available, int minLength, int maxLength) {
+		long availableLow = pack(available, 0);
+		long availableHigh = pack(available, 13);
+		ArrayList<String> out = new ArrayList<String>();
+
+		for (int length = Math.max(0, minLength); length <= limit(available, maxLength); length++) {
+			for (int i = lengthStart[length]; i < lengthStart[length + 1]; i++) {
+				if (fits(low[i], availableLow) && fits(high[i], availableHigh))
+					out.add(getWord(i));
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * @return The amount of words in the <b>LetterIndex</b>.
+	 */
+	public int size() {
+		return low.length;
+	}
+
+	/**
+	 * Words are positioned from shortest to longest, so the words of one
+	 * length are from {@code getFirst(length)} up to
+	 * {@code getFirst(length + 1)}.
+	 *
+	 * @param length
+	 *            the length of the words.
+	 * @return The position of the first word of the length.
+	 */
+	public int getFirst(int length) {
+		return lengthStart[Math.max(0, Math.min(length, TrieLexicon.MAX_LENGTH + 1))];
+	}
+
+	/**
+	 * @param position
+	 *            the position of a word.
+	 * @return The length of the word.
+	 */
+	public int getLength(int position) {
+		int length = 0;
+		while (lengthStart[length + 1] <= position)
+			length++;
+		return length;
+	}
+
+	/**
+	 * @param position
+	 *            the position of a word.
+	 * @return The word.
+	 */
+	public String getWord(int position) {
+		int length = getLength(position);
+		char[] out = new char[length];
+		int start = textStart[length] + (position - lengthStart[length]) * length;
+		for (int i = 0; i < length; i++) {
+			out[i] = (char) text[start + i];
+		}
+		return new String(out);
+	}
+
+	/**
+	 * @param position
+	 *            the position of a word.
+	 * @return The counts of {@code 'A'} to {@code 'M'} of the word, packed as
+	 *         by {@link LetterIndex#pack(int[], int)}.
+	 */
+	public long getLow(int position) {
+		return low[position];
+	}
+
+	/**
+	 * @param position
+	 *            the position of a word.
+	 * @return The counts of {@code 'N'} to {@code 'Z'} of the word, packed as
+	 *         by {@link LetterIndex#pack(int[], int)}.
+	 */
+	public long getHigh(int position) {
+		return high[position];
+	}
+
+	/**
+	 * Finds the length of the longest substring shared by a word and the
+	 * target of scorer, without creating the word.
+	 *
+	 * @param position
+	 *            the position of the word.
+	 * @param length
+	 *            the length of the word.
+	 * @param scorer
+	 *            compares words with its target.
+	 * @return The length of the longest common substring.
+	 */
+	public int longestSubstr(int position, int length, WordScorer scorer) {
+		return scorer.longestSubstr(text, textStart[length] + (position - lengthStart[length]) * length, length);
+	}
+
+	/**
+	 * Finds the words sharing a substring of at least 3 letters with word.
+	 *
+	 * @param word
+	 *            the upper-case word being compared.
+	 * @return The positions of the words found, each listed once.
+	 */
+	public int[] findSubstrings(String word) {
+		boolean[] seen = new boolean[size()];
+		int[] out = new int[16];
+		int count = 0;
+		for (int i = 0; i + 3 <= word.length(); i++) {
+			int run = 0;
+			for (int j = i; j < i + 3; j++) {
+				int letter = word.charAt(j) - 'A';
+				if (letter < 0 || letter >= 26)
+					run = -1;
+				else if (run >= 0)
+					run = run * 26 + letter;
+			}
+			if (run < 0)
+				continue;
+
+			for (int j = trigramStart[run]; j < trigramStart[run + 1]; j++) {
+				if (seen[trigramWords[j]])
+					continue;
+				seen[trigramWords[j]] = true;
+				if (count == out.length)
+					out = Arrays.copyOf(out, count * 2);
+				out[count++] = trigramWords[j];
+			}
+		}
+		return Arrays.copyOf(out, count);
+	}
+
+	/**
+	 * @param text
+	 *            the letters holding the run.
+	 * @param offset
+	 *            the position of the first letter of the run.
+	 * @return The number of the run of 3 letters starting at offset, as used
+	 *         by {@link LetterIndex#trigramStart}.
+	 */
+	private static int trigram(byte[] text, int offset) {
+		return ((text[offset] - 'A') * 26 + (text[offset + 1] - 'A')) * 26 + (text[offset + 2] - 'A');
+	}
+
+	/**
+	 * @param available
+	 *            the amount of each letter available.
+	 * @param maxLength
+	 *            the longest word allowed.
+	 * @return The longest length worth checking, which is limited by both
+	 *         maxLength and the total amount of letters available.
+	 */
+	private int limit(int[] available, int maxLength) {
+		int total = 0;
+		for (int i = 0; i < 26; i++) {
+			total += Math.max(0, available[i]);
+		}
+		return Math.min(Math.min(maxLength, total), TrieLexicon.MAX_LENGTH);
+	}
+
+	/**
+	 * Packs 13 letter counts into the lanes of a long. Counts are limited to
+	 * the range 0 to 15, which does not change the result of
+	 * {@link LetterIndex#fits(long, long)} for available letters, since no
+	 * stored word uses a letter more than 15 times. Words with a letter used
+	 * more than 15 times have every lane of their {@code 'A'} to {@code 'M'}
+	 * counts set instead.
+	 *
+	 * @param counts
+	 *            the amount of each letter, starting from {@code 'A'}.
+	 * @param first
+	 *            the first letter packed, 0 for {@code 'A'} or 13 for
+	 *            {@code 'N'}.
+	 * @return The packed counts.
+	 */
+	public static long pack(int[] counts, int first) {
+		long out = 0;
+		for (int i = 0; i < 13; i++) {
+			long count = Math.min(15, Math.max(0, counts[first + i]));
+			out |= count << (i * 4);
+		}
+		return out;
+	}
+
+	/**
+	 * Checks that no lane of word is larger than the same lane of available.
+	 *
+	 * @param word
+	 *            the packed letter counts of a word.
+	 * @param available
+	 *            the packed letter counts available.
+	 * @return Whether the word fits in the available letters.
+	 */
+	public static boolean fits(long word, long available) {
+		long even = ((available & EVEN_LANES) | GUARDS) - (word & EVEN_LANES);
+		long odd = (((available >>> 4) & EVEN_LANES) | GUARDS) - ((word >>> 4) & EVEN_LANES);
+		return (even & odd & GUARDS) == GUARDS;
+	}
+
+	/**
+	 * Finds the smaller count of each letter of two packed counts, for every
+	 * lane at once in the same way as {@link LetterIndex#fits(long, long)}.
+	 *
+	 * @param first
+	 *            the first packed letter counts.
+	 * @param second
+	 *            the second packed letter counts.
+	 * @return The packed counts, each the smaller of the two.
+	 */
+	public static long min(long first, long second) {
+		return minEvenLanes(first, second) | (minEvenLanes(first >>> 4, second >>> 4) << 4);
+	}
+
+	/**
+	 * Finds the smaller of each pair of every other lane, starting from the
+	 * lowest one. Each lane has 4 free bits above it, used to find which of
+	 * the pair is larger from the borrow of a subtraction.
+	 *
+	 * @param first
+	 *            the first lanes.
+	 * @param second
+	 *            the second lanes.
+	 * @return The smaller value of each lane, in the same positions.
+	 */
+	private static long minEvenLanes(long first, long second) {
+		first &= EVEN_LANES;
+		second &= EVEN_LANES;
+		// The guard above a lane is kept where first is at least second.
+		long notSmaller = (((first | GUARDS) - second) & GUARDS) >>> 4;
+		long mask = notSmaller * 0xF;
+		return (second & mask) | (first & ~mask & EVEN_LANES);
+	}
+}
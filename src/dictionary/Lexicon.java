@@ -0,0 +1,75 @@
+package dictionary;
+
+import java.util.ArrayList;
+
+/**
+ * <b>Lexicon</b> is the interface through which the words of the dictionary
+ * are accessed. All words stored in a <b>Lexicon</b> are upper-case, and only
+ * contain the letters {@code 'A'} to {@code 'Z'}.
+ * 
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ * @see TrieLexicon
+ */
+public interface Lexicon {
+	/**
+	 * Checks if a word is in the <b>Lexicon</b>.
+	 * 
+	 * @param word
+	 *            the upper-case word being searched for.
+	 * @return Whether the word is in the <b>Lexicon</b>.
+	 */
+	public boolean contains(String word);
+
+	/**
+	 * Checks if any word in the <b>Lexicon</b> starts with prefix. A word is
+	 * considered to be a prefix of itself.
+	 * 
+	 * @param prefix
+	 *            the upper-case start of a word.
+	 * @return Whether at least one word starts with prefix.
+	 */
+	public boolean isPrefix(String prefix);
+
+	/**
+	 * @return The amount of words in the <b>Lexicon</b>.
+	 */
+	public int size();
+
+	/**
+	 * Gets the amount of words of a specific length.
+	 * 
+	 * @param length
+	 *            the length of the words being counted.
+	 * @return The amount of words in the <b>Lexicon</b> with that length.
+	 */
+	public int size(int length);
+
+	/**
+	 * Provides access to the words of a specific length by their position. The
+	 * words of every length are numbered from 0 to {@code size(length) - 1}.
+	 * 
+	 * @param length
+	 *            the length of the word.
+	 * @param index
+	 *            the position of the word among words of that length.
+	 * @return The word at index.
+	 */
+	public String getWord(int length, int index);
+
+	/**
+	 * Finds all the words that start with prefix, and have a length between
+	 * minLength and maxLength inclusive. The words are provided in
+	 * alphabetical order.
+	 * 
+	 * @param prefix
+	 *            the upper-case start of the words, or "" for all words.
+	 * @param minLength
+	 *            the shortest length allowed.
+	 * @param maxLength
+	 *            the longest length allowed.
+	 * @return All the words matching the prefix and the length filter.
+	 */
+	public ArrayList<String> getWords(String prefix, int minLength, int maxLength);
+}
@@ -0,0 +1,134 @@
+package dictionary;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * <b>LexiconCompiler</b> creates the compiled dictionary file read by
+ * {@link MappedLexicon}. It is run once whenever the word list changes, so that
+ * the game does not need to parse the word list every time it starts.
+ * <p>
+ * Usage: {@code java dictionary.LexiconCompiler [words.txt] [words.dic]}
+ * <p>
+ * The default input is resources/miscellaneous/wordsEn.txt, and the default
+ * output is resources/miscellaneous/wordsEn.dic. Only words between
+ * {@link LexiconCompiler#MIN_LENGTH} and {@link LexiconCompiler#MAX_LENGTH}
+ * letters long are kept.
+ *
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ */
+public class LexiconCompiler {
+	/**
+	 * The shortest word usable in the game.
+	 */
+	public static final int MIN_LENGTH = 3;
+
+	/**
+	 * The longest word usable in the game.
+	 */
+	public static final int MAX_LENGTH = 13;
+
+	/**
+	 * Compiles a word list.
+	 *
+	 * @param args
+	 *            the word list and the output file, both optional.
+	 * @throws IOException
+	 *             if the word list cannot be read, or the output cannot be
+	 *             written.
+	 */
+	public static void main(String[] args) throws IOException {
+		File in = new File(args.length > 0 ? args[0] : "resources/miscellaneous/wordsEn.txt");
+		File out = new File(args.length > 1 ? args[1] : "resources/miscellaneous/wordsEn.dic");
+
+		Lexicon lexicon = TrieLexicon.load(in, MIN_LENGTH, MAX_LENGTH);
+		compile(lexicon, out);
+		System.out.println(lexicon.size() + " words written to " + out);
+	}
+
+	/**
+	 * Writes all the words of a {@link Lexicon} as a compiled dictionary, in
+	 * the layout described by {@link MappedLexicon}.
+	 *
+	 * @param lexicon
+	 *            the words to be written.
+	 * @param file
+	 *            the file to be written to.
+	 * @throws IOException
+	 *             if the file cannot be written.
+	 */
+	public static void compile(Lexicon lexicon, File file) throws IOException {
+		ArrayList<String> words = lexicon.getWords("", 0, TrieLexicon.MAX_LENGTH);
+		int maxLength = 0;
+		for (String word : words) {
+			maxLength = Math.max(maxLength, word.length());
+		}
+		int blocks = (words.size() + MappedLexicon.BLOCK_SIZE - 1) / MappedLexicon.BLOCK_SIZE;
+
+		int[] counts = new int[maxLength + 1];
+		for (String word : words) {
+			counts[word.length()]++;
+		}
+		int[][] byLength = new int[maxLength + 1][];
+		int[] found = new int[maxLength + 1];
+		for (int i = 0; i <= maxLength; i++) {
+			byLength[i] = new int[counts[i]];
+		}
+		for (int i = 0; i < words.size(); i++) {
+			int length = words.get(i).length();
+			byLength[length][found[length]++] = i;
+		}
+
+		int dataStart = 20 + (maxLength + 1) * 4 + blocks * 4 + words.size() * 4;
+		int[] blockStarts = new int[blocks];
+		ByteArrayOutputStream blockData = new ByteArrayOutputStream();
+		String previous = "";
+		for (int i = 0; i < words.size(); i++) {
+			String word = words.get(i);
+			if (i % MappedLexicon.BLOCK_SIZE == 0) {
+				blockStarts[i / MappedLexicon.BLOCK_SIZE] = dataStart + blockData.size();
+				blockData.write(word.length());
+				blockData.write(word.getBytes("US-ASCII"));
+			} else {
+				int shared = 0;
+				while (shared < previous.length() && shared < word.length()
+						&& previous.charAt(shared) == word.charAt(shared))
+					shared++;
+				blockData.write(shared);
+				blockData.write(word.length() - shared);
+				blockData.write(word.substring(shared).getBytes("US-ASCII"));
+			}
+			previous = word;
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try {
+			out.writeInt(MappedLexicon.MAGIC);
+			out.writeInt(MappedLexicon.VERSION);
+			out.writeInt(words.size());
+			out.writeInt(blocks);
+			out.writeInt(maxLength);
+			for (int count : counts) {
+				out.writeInt(count);
+			}
+			for (int start : blockStarts) {
+				out.writeInt(start);
+			}
+			for (int[] positions : byLength) {
+				for (int pos : positions) {
+					out.writeInt(pos);
+				}
+			}
+			blockData.writeTo(out);
+		} finally {
+			out.close();
+		}
+	}
+}
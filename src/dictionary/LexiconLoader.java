@@ -0,0 +1,181 @@
+package dictionary;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+/**
+ * <b>LexiconLoader</b> loads a {@link Lexicon} on a background thread, so that
+ * the dictionary can be prepared while the rest of the game is starting.
+ * <p>
+ * The compiled dictionary created by {@link LexiconCompiler} is used if it
+ * exists, otherwise the word list it was compiled from is read. Anything asking
+ * for the {@link Lexicon} before it has finished loading waits for it, and
+ * loading starts at that point if {@link LexiconLoader#start()} was never
+ * called.
+ *
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ */
+public class LexiconLoader {
+	/**
+	 * The compiled dictionary file.
+	 */
+	private File compiled;
+
+	/**
+	 * The word list, used if {@link LexiconLoader#compiled} cannot be read.
+	 */
+	private File wordList;
+
+	/**
+	 * The thread doing the loading, or null if loading has not started.
+	 */
+	private Thread loader;
+
+	/**
+	 * The loaded {@link Lexicon}, or null if it is not ready yet.
+	 */
+	private volatile Lexicon lexicon;
+
+	/**
+	 * The {@link WordIndex} of {@link LexiconLoader#lexicon}, or null if it is
+	 * not ready yet.
+	 */
+	private volatile WordIndex words;
+
+	/**
+	 * The {@link LetterIndex} of {@link LexiconLoader#lexicon}, or null if it
+	 * is not ready yet.
+	 */
+	private volatile LetterIndex letters;
+
+	/**
+	 * Creates a <b>LexiconLoader</b>. Nothing is loaded until the
+	 * {@link Lexicon} is needed, or {@link LexiconLoader#start()} is called.
+	 *
+	 * @param compiled
+	 *            the compiled dictionary file.
+	 * @param wordList
+	 *            the word list, used if the compiled file cannot be read.
+	 */
+	public LexiconLoader(File compiled, File wordList) {
+		this.compiled = compiled;
+		this.wordList = wordList;
+		loader = null;
+		lexicon = null;
+		words = null;
+		letters = null;
+	}
+
+	/**
+	 * Starts loading in the background, if it has not started already.
+	 */
+	public synchronized void start() {
+		if (loader != null)
+			return;
+		loader = new Thread(new Runnable() {
+			public void run() {
+				Lexicon out = load();
+				words = new WordIndex(out);
+				letters = new LetterIndex(out);
+				lexicon = out;
+			}
+		}, "Dictionary loader");
+		loader.setDaemon(true);
+		loader.start();
+	}
+
+	/**
+	 * @return Whether the {@link Lexicon} is ready to be used without waiting.
+	 */
+	public boolean isLoaded() {
+		return lexicon != null;
+	}
+
+	/**
+	 * Provides the loaded {@link Lexicon}, waiting for it if it is still
+	 * loading.
+	 *
+	 * @return The loaded {@link Lexicon}.
+	 */
+	public Lexicon getLexicon() {
+		if (lexicon == null)
+			await();
+		return lexicon;
+	}
+
+	/**
+	 * Provides the {@link WordIndex} of the loaded {@link Lexicon}, waiting
+	 * for it if it is still loading.
+	 *
+	 * @return The {@link WordIndex} of the loaded {@link Lexicon}.
+	 */
+	public WordIndex getWordIndex() {
+		if (words == null)
+			await();
+		return words;
+	}
+
+	/**
+	 * Provides the {@link LetterIndex} of the loaded {@link Lexicon}, waiting
+	 * for it if it is still loading.
+	 *
+	 * @return The {@link LetterIndex} of the loaded {@link Lexicon}.
+	 */
+	public LetterIndex getLetterIndex() {
+		if (letters == null)
+			await();
+		return letters;
+	}
+
+	/**
+	 * Waits for the background thread to finish, starting it if needed. If
+	 * loading failed unexpectedly, an empty {@link Lexicon} is used instead.
+	 */
+	private void await() {
+		start();
+		boolean interrupted = false;
+		while (loader.isAlive()) {
+			try {
+				loader.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+
+		synchronized (this) {
+			if (lexicon == null) {
+				Lexicon empty = new TrieLexicon();
+				words = new WordIndex(empty);
+				letters = new LetterIndex(empty);
+				lexicon = empty;
+			}
+		}
+	}
+
+	/**
+	 * Reads the {@link Lexicon} from {@link LexiconLoader#compiled}, or from
+	 * {@link LexiconLoader#wordList} if that fails.
+	 *
+	 * @return The {@link Lexicon} read, which is empty if neither file could
+	 *         be read.
+	 */
+	private Lexicon load() {
+		try {
+			return MappedLexicon.open(compiled);
+		} catch (IOException e) {
+			System.err.println(e.getMessage());
+		}
+
+		try {
+			return TrieLexicon.load(wordList, LexiconCompiler.MIN_LENGTH, LexiconCompiler.MAX_LENGTH);
+		} catch (FileNotFoundException e) {
+			e.printStackTrace();
+			return new TrieLexicon();
+		}
+	}
+}
@@ -0,0 +1,375 @@
+package dictionary;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+
+/**
+ * <b>MappedLexicon</b> is a {@link Lexicon} that is read directly from a
+ * compiled dictionary file, which is memory-mapped rather than parsed. The
+ * file is created by {@link LexiconCompiler}.
+ * <p>
+ * The file contains the words in alphabetical order, split into blocks of
+ * {@link MappedLexicon#BLOCK_SIZE} words. The first word of each block is
+ * stored in full, and every other word is stored as the amount of letters it
+ * shares with the word before it, followed by the rest of its letters. A word
+ * is found by a binary search over the first words of the blocks, followed by
+ * a scan of one block, without creating any Strings.
+ * <p>
+ * The layout of the file, with all numbers stored as big-endian ints unless
+ * stated otherwise:
+ * <p>
+ * {@link MappedLexicon#MAGIC}, {@link MappedLexicon#VERSION}, the amount of
+ * words, the amount of blocks, and the longest word length L.
+ * <p>
+ * L + 1 counts, the amount of words of each length.
+ * <p>
+ * The position of each block in the file.
+ * <p>
+ * For each length from 0 to L, the alphabetical positions of the words of that
+ * length, used by {@link MappedLexicon#getWord(int, int)}.
+ * <p>
+ * The blocks. The first word is stored as a length byte and its letters, every
+ * other word as a shared length byte, a suffix length byte and its suffix.
+ *
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ * @see LexiconCompiler
+ */
+public class MappedLexicon implements Lexicon {
+	/**
+	 * Identifies a compiled dictionary file.
+	 */
+	public static final int MAGIC = 0x4C425744;
+
+	/**
+	 * The version of the file layout that can be read.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The amount of words in a block.
+	 */
+	public static final int BLOCK_SIZE = 16;
+
+	/**
+	 * The size of the header before the length counts.
+	 */
+	private static final int HEADER_SIZE = 20;
+
+	/**
+	 * The mapped contents of the file. Only absolute reads are used, so it
+	 * can be shared between threads.
+	 */
+	private ByteBuffer data;
+
+	/**
+	 * The amount of words in the file.
+	 */
+	private int size;
+
+	/**
+	 * The amount of blocks in the file.
+	 */
+	private int blocks;
+
+	/**
+	 * The longest word in the file.
+	 */
+	private int maxLength;
+
+	/**
+	 * The position of the first block position in {@link MappedLexicon#data}.
+	 */
+	private int blockTable;
+
+	/**
+	 * The position in {@link MappedLexicon#data} of the word positions of each
+	 * length.
+	 */
+	private int[] lengthTables;
+
+	/**
+	 * Creates a <b>MappedLexicon</b> from the contents of a compiled dictionary
+	 * file.
+	 *
+	 * @param data
+	 *            the contents of the file.
+	 * @throws IOException
+	 *             if the contents are not a compiled dictionary.
+	 */
+	public MappedLexicon(ByteBuffer data) throws IOException {
+		this.data = data;
+		if (data.capacity() < HEADER_SIZE || data.getInt(0) != MAGIC)
+			throw new IOException("Not a compiled dictionary");
+		if (data.getInt(4) != VERSION)
+			throw new IOException("Unsupported dictionary version " + data.getInt(4));
+		size = data.getInt(8);
+		blocks = data.getInt(12);
+		maxLength = data.getInt(16);
+
+		blockTable = HEADER_SIZE + (maxLength + 1) * 4;
+		lengthTables = new int[maxLength + 1];
+		int pos = blockTable + blocks * 4;
+		for (int i = 0; i <= maxLength; i++) {
+			lengthTables[i] = pos;
+			pos += size(i) * 4;
+		}
+		if (pos > data.capacity() || blocks != (size + BLOCK_SIZE - 1) / BLOCK_SIZE)
+			throw new IOException("Compiled dictionary is truncated");
+	}
+
+	/**
+	 * Memory-maps a compiled dictionary file.
+	 *
+	 * @param file
+	 *            the file created by {@link LexiconCompiler}.
+	 * @return A <b>MappedLexicon</b> of the words in the file.
+	 * @throws IOException
+	 *             if the file cannot be read, or is not a compiled dictionary.
+	 */
+	public static MappedLexicon open(File file) throws IOException {
+		RandomAccessFile in = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = in.getChannel();
+			return new MappedLexicon(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			in.close();
+		}
+	}
+
+	@Override
+	public boolean contains(String word) {
+		long found = search(word);
+		int pos = (int) (found >>> 32);
+		int matched = (int) found;
+		return pos < size && matched == word.length() && wordLength(pos) == word.length();
+	}
+
+	@Override
+	public boolean isPrefix(String prefix) {
+		long found = search(prefix);
+		return (int) (found >>> 32) < size && (int) found == prefix.length();
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public int size(int length) {
+		if (length < 0 || length > maxLength)
+			return 0;
+		return data.getInt(HEADER_SIZE + length * 4);
+	}
+
+	@Override
+	public String getWord(int length, int index) {
+		if (index < 0 || index >= size(length))
+			throw new IndexOutOfBoundsException("No word " + index + " of length " + length);
+		char[] word = new char[maxLength];
+		decode(data.getInt(lengthTables[length] + index * 4), word);
+		return new String(word, 0, length);
+	}
+
+	@Override
+	public ArrayList<String> getWords(String prefix, int minLength, int maxLength) {
+		ArrayList<String> out = new ArrayList<String>();
+		char[] word = new char[this.maxLength];
+		int pos = (int) (search(prefix) >>> 32);
+		if (pos >= size)
+			return out;
+
+		int offset = 0;
+		for (int i = pos / BLOCK_SIZE * BLOCK_SIZE; i < size; i++) {
+			if (i % BLOCK_SIZE == 0)
+				offset = blockStart(i / BLOCK_SIZE);
+			int shared = (i % BLOCK_SIZE == 0 ? 0 : data.get(offset++));
+			int suffix = data.get(offset++);
+			for (int j = 0; j < suffix; j++) {
+				word[shared + j] = (char) data.get(offset++);
+			}
+			int length = shared + suffix;
+
+			if (i >= pos) {
+				if (length < prefix.length() || !startsWith(word, prefix))
+					break;
+				if (length >= minLength && length <= maxLength)
+					out.add(new String(word, 0, length));
+			}
+		}
+
+		return out;
+	}
+
+	/**
+	 * Finds the first word that is not before key alphabetically.
+	 *
+	 * @param key
+	 *            the upper-case word being searched for.
+	 * @return The position of the word in the upper 32 bits, or the amount of
+	 *         words if every word is before key. The lower 32 bits hold the
+	 *         amount of letters the word shares with the start of key.
+	 */
+	private long search(String key) {
+		int low = 0;
+		int high = blocks - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (compareHead(mid, key) <= 0)
+				low = mid;
+			else
+				high = mid - 1;
+		}
+		if (blocks == 0)
+			return (long) size << 32;
+
+		int offset = blockStart(low);
+		int length = data.get(offset++);
+		int matched = 0;
+		while (matched < length && matched < key.length() && data.get(offset + matched) == key.charAt(matched))
+			matched++;
+		if (compare(offset, length, matched, key) >= 0)
+			return ((long) low * BLOCK_SIZE << 32) | matched;
+		offset += length;
+
+		int last = Math.min(size, (low + 1) * BLOCK_SIZE);
+		for (int i = low * BLOCK_SIZE + 1; i < last; i++) {
+			int shared = data.get(offset++);
+			int suffix = data.get(offset++);
+			if (shared < matched)
+				return ((long) i << 32) | shared;
+			if (shared == matched) {
+				length = shared + suffix;
+				int start = offset - shared;
+				while (matched < length && matched < key.length()
+						&& data.get(start + matched) == key.charAt(matched))
+					matched++;
+				if (compare(start, length, matched, key) >= 0)
+					return ((long) i << 32) | matched;
+			}
+			offset += suffix;
+		}
+
+		if (last == size)
+			return (long) size << 32;
+		offset = blockStart(low + 1);
+		length = data.get(offset++);
+		matched = 0;
+		while (matched < length && matched < key.length() && data.get(offset + matched) == key.charAt(matched))
+			matched++;
+		return ((long) last << 32) | matched;
+	}
+
+	/**
+	 * Compares a word in {@link MappedLexicon#data} with key, once the amount
+	 * of letters they share is known.
+	 *
+	 * @param start
+	 *            the position the word would start at if it were stored in
+	 *            full. Only letters from matched onwards are read.
+	 * @param length
+	 *            the length of the word.
+	 * @param matched
+	 *            the amount of letters the word shares with the start of key.
+	 * @param key
+	 *            the word being compared with.
+	 * @return A negative number if the word is before key, 0 if they are
+	 *         equal, and a positive number if the word is after key.
+	 */
+	private int compare(int start, int length, int matched, String key) {
+		if (matched == length || matched == key.length())
+			return length - key.length();
+		return data.get(start + matched) - key.charAt(matched);
+	}
+
+	/**
+	 * Compares the first word of a block with key.
+	 *
+	 * @param block
+	 *            the block whose first word is compared.
+	 * @param key
+	 *            the word being compared with.
+	 * @return A negative number if the word is before key, 0 if they are
+	 *         equal, and a positive number if the word is after key.
+	 */
+	private int compareHead(int block, String key) {
+		int offset = blockStart(block);
+		int length = data.get(offset++);
+		int matched = 0;
+		while (matched < length && matched < key.length() && data.get(offset + matched) == key.charAt(matched))
+			matched++;
+		return compare(offset, length, matched, key);
+	}
+
+	/**
+	 * Reads a word into a buffer.
+	 *
+	 * @param pos
+	 *            the alphabetical position of the word.
+	 * @param word
+	 *            the buffer the letters are written to.
+	 * @return The length of the word.
+	 */
+	private int decode(int pos, char[] word) {
+		int offset = blockStart(pos / BLOCK_SIZE);
+		int length = 0;
+		for (int i = pos / BLOCK_SIZE * BLOCK_SIZE; i <= pos; i++) {
+			int shared = (i % BLOCK_SIZE == 0 ? 0 : data.get(offset++));
+			int suffix = data.get(offset++);
+			for (int j = 0; j < suffix; j++) {
+				word[shared + j] = (char) data.get(offset++);
+			}
+			length = shared + suffix;
+		}
+		return length;
+	}
+
+	/**
+	 * Finds the length of a word without reading its letters.
+	 *
+	 * @param pos
+	 *            the alphabetical position of the word.
+	 * @return The length of the word.
+	 */
+	private int wordLength(int pos) {
+		int offset = blockStart(pos / BLOCK_SIZE);
+		int length = 0;
+		for (int i = pos / BLOCK_SIZE * BLOCK_SIZE; i <= pos; i++) {
+			int shared = (i % BLOCK_SIZE == 0 ? 0 : data.get(offset++));
+			int suffix = data.get(offset++);
+			offset += suffix;
+			length = shared + suffix;
+		}
+		return length;
+	}
+
+	/**
+	 * @param block
+	 *            the number of the block.
+	 * @return The position of the block in {@link MappedLexicon#data}.
+	 */
+	private int blockStart(int block) {
+		return data.getInt(blockTable + block * 4);
+	}
+
+	/**
+	 * @param word
+	 *            the letters of a word.
+	 * @param prefix
+	 *            the start being checked for.
+	 * @return Whether the letters start with prefix.
+	 */
+	private static boolean startsWith(char[] word, String prefix) {
+		for (int i = 0; i < prefix.length(); i++) {
+			if (word[i] != prefix.charAt(i))
+				return false;
+		}
+		return true;
+	}
+}
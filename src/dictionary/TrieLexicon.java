@@ -0,0 +1,408 @@
+package dictionary;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Scanner;
+
+/**
+ * <b>TrieLexicon</b> is a {@link Lexicon} that stores its words in a trie.
+ * <p>
+ * Rather than using an object per node, the nodes are stored in parallel
+ * arrays, and are referred to by their position in those arrays. The children
+ * of a node are stored as a linked list in alphabetical order, which starts at
+ * {@link TrieLexicon#firstChild} and continues through
+ * {@link TrieLexicon#nextSibling}. This keeps a node at 17 bytes, which is far
+ * smaller than the Strings a HashSet of the same words would require.
+ * <p>
+ * The last node of every word is also stored in an array for each word length,
+ * which allows a word to be found by its length and position without searching
+ * the trie.
+ *
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ */
+public class TrieLexicon implements Lexicon {
+	/**
+	 * The longest word that can be stored, limited by the size of
+	 * {@link TrieLexicon#lengths}.
+	 */
+	public static final int MAX_LENGTH = 31;
+
+	/**
+	 * Represents the lack of a node in {@link TrieLexicon#firstChild} and
+	 * {@link TrieLexicon#nextSibling}.
+	 */
+	private static final int NONE = -1;
+
+	/**
+	 * The position of the root node, which represents the empty String.
+	 */
+	private static final int ROOT = 0;
+
+	/**
+	 * The letter of each node, stored as its distance from {@code 'A'}.
+	 */
+	private byte[] letters;
+
+	/**
+	 * The first child of each node, or {@link TrieLexicon#NONE}.
+	 */
+	private int[] firstChild;
+
+	/**
+	 * The next sibling of each node, or {@link TrieLexicon#NONE}.
+	 */
+	private int[] nextSibling;
+
+	/**
+	 * The parent of each node, or {@link TrieLexicon#NONE} for the root.
+	 */
+	private int[] parent;
+
+	/**
+	 * For each node, bit n is set if a word of length n ends at, or below, that
+	 * node. A node at depth d is the end of a word if bit d is set.
+	 */
+	private int[] lengths;
+
+	/**
+	 * The amount of nodes in use.
+	 */
+	private int nodes;
+
+	/**
+	 * The amount of words stored at each length.
+	 */
+	private int[] wordsOfLength;
+
+	/**
+	 * The last node of every word, grouped by the length of the word. It is
+	 * built when first needed, and discarded when a word is added.
+	 */
+	private int[][] wordsByLength;
+
+	/**
+	 * The amount of words stored.
+	 */
+	private int size;
+
+	/**
+	 * Creates an empty <b>TrieLexicon</b>.
+	 */
+	public TrieLexicon() {
+		letters = new byte[1024];
+		firstChild = new int[1024];
+		nextSibling = new int[1024];
+		parent = new int[1024];
+		lengths = new int[1024];
+		wordsOfLength = new int[MAX_LENGTH + 1];
+		wordsByLength = null;
+		size = 0;
+
+		nodes = 1;
+		firstChild[ROOT] = NONE;
+		nextSibling[ROOT] = NONE;
+		parent[ROOT] = NONE;
+	}
+
+	/**
+	 * Adds a word to the <b>TrieLexicon</b>.
+	 *
+	 * @param word
+	 *            an upper-case word made up of only the letters {@code 'A'}
+	 *            to {@code 'Z'}.
+	 * @return Whether the word was added, false if it was already stored.
+	 */
+	public boolean add(String word) {
+		if (word.length() > MAX_LENGTH)
+			throw new IllegalArgumentException("Word is too long: " + word);
+		for (int i = 0; i < word.length(); i++) {
+			if (word.charAt(i) < 'A' || word.charAt(i) > 'Z')
+				throw new IllegalArgumentException("Word is not upper-case: " + word);
+		}
+
+		int node = ROOT;
+		for (int i = 0; i < word.length(); i++) {
+			node = addChild(node, (byte) (word.charAt(i) - 'A'));
+		}
+		if ((lengths[node] & (1 << word.length())) != 0)
+			return false;
+
+		node = ROOT;
+		lengths[ROOT] |= 1 << word.length();
+		for (int i = 0; i < word.length(); i++) {
+			node = findChild(node, word.charAt(i));
+			lengths[node] |= 1 << word.length();
+		}
+		wordsOfLength[word.length()]++;
+		wordsByLength = null;
+		size++;
+		return true;
+	}
+
+	@Override
+	public boolean contains(String word) {
+		if (word.length() > MAX_LENGTH)
+			return false;
+		int node = findNode(word);
+		return node != NONE && (lengths[node] & (1 << word.length())) != 0;
+	}
+
+	@Override
+	public boolean isPrefix(String prefix) {
+		return prefix.length() <= MAX_LENGTH && findNode(prefix) != NONE;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public int size(int length) {
+		if (length < 0 || length > MAX_LENGTH)
+			return 0;
+		return wordsOfLength[length];
+	}
+
+	@Override
+	public String getWord(int length, int index) {
+		if (wordsByLength == null)
+			indexWords();
+		int node = wordsByLength[length][index];
+		char[] word = new char[length];
+		for (int i = length - 1; i >= 0; i--) {
+			word[i] = (char) ('A' + letters[node]);
+			node = parent[node];
+		}
+		return new String(word);
+	}
+
+	@Override
+	public ArrayList<String> getWords(String prefix, int minLength, int maxLength) {
+		ArrayList<String> out = new ArrayList<String>();
+		int node = (prefix.length() <= MAX_LENGTH ? findNode(prefix) : NONE);
+		int range = lengthRange(minLength, maxLength);
+
+		if (node != NONE && (lengths[node] & range) != 0) {
+			char[] word = new char[MAX_LENGTH];
+			prefix.getChars(0, prefix.length(), word, 0);
+			collect(node, word, prefix.length(), range, out);
+		}
+
+		return out;
+	}
+
+	/**
+	 * Reads a dictionary file with one word per line. Words outside of the
+	 * length limits, or with characters other than letters, are skipped.
+	 *
+	 * @param file
+	 *            the dictionary file.
+	 * @param minLength
+	 *            the shortest word to be stored.
+	 * @param maxLength
+	 *            the longest word to be stored.
+	 * @return A <b>TrieLexicon</b> of all the words in the file.
+	 * @throws FileNotFoundException
+	 *             if the file does not exist.
+	 */
+	public static TrieLexicon load(File file, int minLength, int maxLength) throws FileNotFoundException {
+		TrieLexicon out = new TrieLexicon();
+		Scanner in = new Scanner(file);
+
+		while (in.hasNextLine()) {
+			String temp = in.nextLine().trim();
+			if (temp.length() >= minLength && temp.length() <= maxLength && isWord(temp))
+				out.add(temp.toUpperCase());
+		}
+		in.close();
+
+		out.trim();
+		out.indexWords();
+		return out;
+	}
+
+	/**
+	 * @param word
+	 *            the word being checked.
+	 * @return Whether the word is made up of only letters from {@code 'a'} to
+	 *         {@code 'z'}, in either case.
+	 */
+	private static boolean isWord(String word) {
+		for (int i = 0; i < word.length(); i++) {
+			char c = Character.toUpperCase(word.charAt(i));
+			if (c < 'A' || c > 'Z')
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Releases the unused space at the end of the node arrays.
+	 */
+	private void trim() {
+		letters = Arrays.copyOf(letters, nodes);
+		firstChild = Arrays.copyOf(firstChild, nodes);
+		nextSibling = Arrays.copyOf(nextSibling, nodes);
+		parent = Arrays.copyOf(parent, nodes);
+		lengths = Arrays.copyOf(lengths, nodes);
+	}
+
+	/**
+	 * Builds {@link TrieLexicon#wordsByLength} by visiting every node once.
+	 * The words of each length end up in alphabetical order.
+	 */
+	private void indexWords() {
+		int[][] out = new int[MAX_LENGTH + 1][];
+		int[] found = new int[MAX_LENGTH + 1];
+		for (int i = 0; i <= MAX_LENGTH; i++) {
+			out[i] = new int[wordsOfLength[i]];
+		}
+
+		int node = ROOT;
+		int depth = 0;
+		while (node != NONE) {
+			if ((lengths[node] & (1 << depth)) != 0)
+				out[depth][found[depth]++] = node;
+
+			if (firstChild[node] != NONE) {
+				node = firstChild[node];
+				depth++;
+			} else {
+				while (node != NONE && nextSibling[node] == NONE) {
+					node = parent[node];
+					depth--;
+				}
+				if (node != NONE)
+					node = nextSibling[node];
+			}
+		}
+
+		wordsByLength = out;
+	}
+
+	/**
+	 * Follows the letters of word from the root.
+	 *
+	 * @param word
+	 *            the letters to follow.
+	 * @return The node reached at the end of word, or {@link TrieLexicon#NONE}
+	 *         if no word starts with it.
+	 */
+	private int findNode(String word) {
+		int node = ROOT;
+		for (int i = 0; i < word.length() && node != NONE; i++) {
+			node = findChild(node, word.charAt(i));
+		}
+		if (node != NONE && lengths[node] == 0)
+			return NONE;
+		return node;
+	}
+
+	/**
+	 * Finds the child of node with the given letter.
+	 *
+	 * @param node
+	 *            the parent node.
+	 * @param letter
+	 *            the letter of the child, as a character.
+	 * @return The child, or {@link TrieLexicon#NONE} if it does not exist.
+	 */
+	private int findChild(int node, char letter) {
+		int value = letter - 'A';
+		for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+			if (letters[child] == value)
+				return child;
+			if (letters[child] > value)
+				return NONE;
+		}
+		return NONE;
+	}
+
+	/**
+	 * Finds the child of node with the given letter, and creates it in its
+	 * alphabetical position if it does not exist.
+	 *
+	 * @param node
+	 *            the parent node.
+	 * @param letter
+	 *            the letter of the child, as its distance from {@code 'A'}.
+	 * @return The child.
+	 */
+	private int addChild(int node, byte letter) {
+		int previous = NONE;
+		int child = firstChild[node];
+		while (child != NONE && letters[child] < letter) {
+			previous = child;
+			child = nextSibling[child];
+		}
+		if (child != NONE && letters[child] == letter)
+			return child;
+
+		if (nodes == letters.length) {
+			letters = Arrays.copyOf(letters, nodes * 2);
+			firstChild = Arrays.copyOf(firstChild, nodes * 2);
+			nextSibling = Arrays.copyOf(nextSibling, nodes * 2);
+			parent = Arrays.copyOf(parent, nodes * 2);
+			lengths = Arrays.copyOf(lengths, nodes * 2);
+		}
+
+		int out = nodes++;
+		letters[out] = letter;
+		firstChild[out] = NONE;
+		nextSibling[out] = child;
+		parent[out] = node;
+		lengths[out] = 0;
+		if (previous == NONE)
+			firstChild[node] = out;
+		else
+			nextSibling[previous] = out;
+		return out;
+	}
+
+	/**
+	 * Adds all words at, or below, node to out, in alphabetical order.
+	 *
+	 * @param node
+	 *            the node being visited.
+	 * @param word
+	 *            the letters leading to node.
+	 * @param depth
+	 *            the depth of node, which is the amount of letters in word.
+	 * @param range
+	 *            the lengths allowed, as specified by
+	 *            {@link TrieLexicon#lengthRange(int, int)}.
+	 * @param out
+	 *            the list of words found so far.
+	 */
+	private void collect(int node, char[] word, int depth, int range, ArrayList<String> out) {
+		if ((lengths[node] & range & (1 << depth)) != 0)
+			out.add(new String(word, 0, depth));
+		for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+			if ((lengths[child] & range) != 0) {
+				word[depth] = (char) ('A' + letters[child]);
+				collect(child, word, depth + 1, range, out);
+			}
+		}
+	}
+
+	/**
+	 * @param minLength
+	 *            the shortest length allowed.
+	 * @param maxLength
+	 *            the longest length allowed.
+	 * @return A bit mask with the bits from minLength to maxLength set, to be
+	 *         compared with {@link TrieLexicon#lengths}.
+	 */
+	private static int lengthRange(int minLength, int maxLength) {
+		int out = 0;
+		for (int i = Math.max(0, minLength); i <= Math.min(MAX_LENGTH, maxLength); i++) {
+			out |= 1 << i;
+		}
+		return out;
+	}
+}
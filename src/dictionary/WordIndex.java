@@ -0,0 +1,70 @@
+package dictionary;
+
+/**
+ * <b>WordIndex</b> provides random selection of words from a {@link Lexicon}.
+ * <p>
+ * The amount of words of each length is counted once when the <b>WordIndex</b>
+ * is created, so choosing a word only requires picking a position and reading
+ * it through {@link Lexicon#getWord(int, int)}. Every word within the length
+ * limits has the same chance of being chosen.
+ *
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ */
+public class WordIndex {
+	/**
+	 * The {@link Lexicon} the words are chosen from.
+	 */
+	private Lexicon lexicon;
+
+	/**
+	 * The amount of words of each length in {@link WordIndex#lexicon}.
+	 */
+	private int[] counts;
+
+	/**
+	 * Creates a <b>WordIndex</b> for all the words in lexicon.
+	 *
+	 * @param lexicon
+	 *            the {@link Lexicon} the words are chosen from. It should not
+	 *            change after the <b>WordIndex</b> is created.
+	 */
+	public WordIndex(Lexicon lexicon) {
+		this.lexicon = lexicon;
+		counts = new int[TrieLexicon.MAX_LENGTH + 1];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = lexicon.size(i);
+		}
+	}
+
+	/**
+	 * Chooses a random word with a length between minLength and maxLength
+	 * inclusive.
+	 *
+	 * @param minLength
+	 *            the shortest length allowed.
+	 * @param maxLength
+	 *            the longest length allowed.
+	 * @return A random word, or null if there are no words of those lengths.
+	 */
+	public String randomWord(int minLength, int maxLength) {
+		minLength = Math.max(0, minLength);
+		maxLength = Math.min(counts.length - 1, maxLength);
+
+		int total = 0;
+		for (int i = minLength; i <= maxLength; i++) {
+			total += counts[i];
+		}
+		if (total == 0)
+			return null;
+
+		int pos = (int) (Math.random() * total);
+		int length = minLength;
+		while (pos >= counts[length]) {
+			pos -= counts[length];
+			length++;
+		}
+		return lexicon.getWord(length, pos);
+	}
+}
@@ -0,0 +1,307 @@
+package dictionary;
+
+import java.nio.charset.Charset;
+
+/**
+ * <b>WordScorer</b> measures how similar words are to one target word, which
+ * is how damage is decided in combat. Both measures only consider the letters
+ * {@code 'A'} to {@code 'Z'}.
+ * <p>
+ * Everything needed about the target is prepared once, when the
+ * <b>WordScorer</b> is created, so scoring a word does not allocate anything.
+ * Each letter of the target has a 4-bit lane in a long, which allows targets
+ * of up to {@link WordScorer#MAX_PACKED_LENGTH} letters to be handled a whole
+ * row at a time:
+ * <p>
+ * For the longest common substring, a lane holds the length of the common
+ * substring ending at that letter of the target, and every letter of the other
+ * word updates all lanes at once.
+ * <p>
+ * For the common letters, the amount of each letter in the target is stored in
+ * the lanes of two longs, one for {@code 'A'} to {@code 'M'} and one for
+ * {@code 'N'} to {@code 'Z'}, and is used up as the other word is read.
+ * <p>
+ * Longer targets are scored without the lanes, which is slower but still does
+ * not allocate. The static methods score a single pair of words the same way.
+ *
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ */
+public class WordScorer {
+	/**
+	 * The longest target that can be stored in the lanes of one long.
+	 */
+	public static final int MAX_PACKED_LENGTH = 15;
+
+	/**
+	 * Selects every other 4-bit lane.
+	 */
+	private static final long EVEN_LANES = 0x0F0F0F0F0F0F0F0FL;
+
+	/**
+	 * The word others are compared to.
+	 */
+	private String target;
+
+	/**
+	 * For each letter, the lanes of the positions in
+	 * {@link WordScorer#target} holding that letter, set to {@code 0xF}.
+	 */
+	private long[] letterLanes;
+
+	/**
+	 * A 1 in the lane of each position in {@link WordScorer#target}.
+	 */
+	private long ones;
+
+	/**
+	 * The amount of each letter from {@code 'A'} to {@code 'M'} in
+	 * {@link WordScorer#target}, one letter per lane.
+	 */
+	private long countsLow;
+
+	/**
+	 * The amount of each letter from {@code 'N'} to {@code 'Z'} in
+	 * {@link WordScorer#target}, one letter per lane.
+	 */
+	private long countsHigh;
+
+	/**
+	 * Prepares the scoring of words against target.
+	 *
+	 * @param target
+	 *            the upper-case word others are compared to.
+	 */
+	public WordScorer(String target) {
+		this.target = target;
+		letterLanes = new long[26];
+		ones = 0;
+		countsLow = 0;
+		countsHigh = 0;
+
+		if (target.length() <= MAX_PACKED_LENGTH) {
+			for (int i = 0; i < target.length(); i++) {
+				int letter = target.charAt(i) - 'A';
+				ones |= 1L << (i * 4);
+				if (letter >= 0 && letter < 26) {
+					letterLanes[letter] |= 0xFL << (i * 4);
+					if (letter < 13)
+						countsLow += 1L << (letter * 4);
+					else
+						countsHigh += 1L << ((letter - 13) * 4);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The word others are compared to.
+	 */
+	public String getTarget() {
+		return target;
+	}
+
+	/**
+	 * Finds the length of the longest substring shared by the target and word.
+	 *
+	 * @param word
+	 *            the upper-case word being compared.
+	 * @return The length of the longest common substring.
+	 */
+	public int longestSubstr(String word) {
+		if (target.length() > MAX_PACKED_LENGTH)
+			return longestSubstr(target, word);
+
+		long runs = 0;
+		int best = 0;
+		for (int i = 0; i < word.length(); i++) {
+			int letter = word.charAt(i) - 'A';
+			if (letter < 0 || letter >= 26) {
+				runs = 0;
+				continue;
+			}
+			runs = ((runs << 4) + ones) & letterLanes[letter];
+			// A substring only grows by one letter per step, so neither can
+			// the longest one.
+			if (runs != 0 && best < target.length() && hasLane(runs, best + 1))
+				best++;
+		}
+		return best;
+	}
+
+	/**
+	 * Finds the length of the longest substring shared by the target and a
+	 * word stored as ASCII letters.
+	 *
+	 * @param text
+	 *            the letters holding the word.
+	 * @param offset
+	 *            the position of the first letter of the word in text.
+	 * @param length
+	 *            the length of the word.
+	 * @return The length of the longest common substring.
+	 */
+	public int longestSubstr(byte[] text, int offset, int length) {
+		if (target.length() > MAX_PACKED_LENGTH)
+			return longestSubstr(target, new String(text, offset, length, Charset.forName("US-ASCII")));
+
+		long runs = 0;
+		int best = 0;
+		for (int i = offset; i < offset + length; i++) {
+			int letter = text[i] - 'A';
+			if (letter < 0 || letter >= 26) {
+				runs = 0;
+				continue;
+			}
+			runs = ((runs << 4) + ones) & letterLanes[letter];
+			if (runs != 0 && best < target.length() && hasLane(runs, best + 1))
+				best++;
+		}
+		return best;
+	}
+
+	/**
+	 * Finds the amount of letters in common between the target and word.
+	 *
+	 * @param word
+	 *            the upper-case word being compared.
+	 * @return The amount of common letters.
+	 */
+	public int commonLetters(String word) {
+		if (target.length() > MAX_PACKED_LENGTH)
+			return commonLetters(target, word);
+
+		long low = countsLow;
+		long high = countsHigh;
+		int out = 0;
+		for (int i = 0; i < word.length(); i++) {
+			int letter = word.charAt(i) - 'A';
+			if (letter >= 0 && letter < 13) {
+				if (((low >>> (letter * 4)) & 0xF) != 0) {
+					low -= 1L << (letter * 4);
+					out++;
+				}
+			} else if (letter >= 13 && letter < 26) {
+				if (((high >>> ((letter - 13) * 4)) & 0xF) != 0) {
+					high -= 1L << ((letter - 13) * 4);
+					out++;
+				}
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Finds the amount of letters in common between the target and a word
+	 * given by its letter counts, packed as by
+	 * {@link LetterIndex#pack(int[], int)}.
+	 *
+	 * @param low
+	 *            the counts of {@code 'A'} to {@code 'M'} in the word.
+	 * @param high
+	 *            the counts of {@code 'N'} to {@code 'Z'} in the word.
+	 * @return The amount of common letters.
+	 */
+	public int commonLetters(long low, long high) {
+		if (target.length() > MAX_PACKED_LENGTH) {
+			int out = 0;
+			for (int i = 0; i < 26; i++) {
+				int inTarget = 0;
+				for (int j = 0; j < target.length(); j++) {
+					if (target.charAt(j) == 'A' + i)
+						inTarget++;
+				}
+				out += Math.min(inTarget, (int) (((i < 13 ? low : high) >>> ((i % 13) * 4)) & 0xF));
+			}
+			return out;
+		}
+		return sumLanes(LetterIndex.min(countsLow, low)) + sumLanes(LetterIndex.min(countsHigh, high));
+	}
+
+	/**
+	 * Finds the length of the longest substring shared by two words, by
+	 * following every diagonal of the table that compares their letters.
+	 *
+	 * @param first
+	 *            the first word.
+	 * @param second
+	 *            the second word.
+	 * @return The length of the longest common substring.
+	 */
+	public static int longestSubstr(String first, String second) {
+		int fl = first.length();
+		int sl = second.length();
+		int best = 0;
+
+		for (int start = 1 - sl; start < fl; start++) {
+			int i = Math.max(0, start);
+			int j = i - start;
+			int run = 0;
+			// Stop once the rest of the diagonal can no longer beat best.
+			while (i < fl && j < sl && run + Math.min(fl - i, sl - j) > best) {
+				if (first.charAt(i) == second.charAt(j) && first.charAt(i) >= 'A' && first.charAt(i) <= 'Z') {
+					run++;
+					if (run > best)
+						best = run;
+				} else {
+					run = 0;
+				}
+				i++;
+				j++;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Finds the amount of letters in common between two words.
+	 *
+	 * @param first
+	 *            the first word.
+	 * @param second
+	 *            the second word.
+	 * @return The amount of common letters.
+	 */
+	public static int commonLetters(String first, String second) {
+		int out = 0;
+		for (char letter = 'A'; letter <= 'Z'; letter++) {
+			int inFirst = 0;
+			int inSecond = 0;
+			for (int i = 0; i < first.length(); i++) {
+				if (first.charAt(i) == letter)
+					inFirst++;
+			}
+			for (int i = 0; i < second.length(); i++) {
+				if (second.charAt(i) == letter)
+					inSecond++;
+			}
+			out += Math.min(inFirst, inSecond);
+		}
+		return out;
+	}
+
+	/**
+	 * @param lanes
+	 *            the lanes being added up.
+	 * @return The sum of all the lanes.
+	 */
+	private static int sumLanes(long lanes) {
+		long bytes = (lanes & EVEN_LANES) + ((lanes >>> 4) & EVEN_LANES);
+		return (int) ((bytes * 0x0101010101010101L) >>> 56);
+	}
+
+	/**
+	 * Checks if any lane in use holds value.
+	 *
+	 * @param lanes
+	 *            the lanes being checked.
+	 * @param value
+	 *            the value being searched for, from 1 to 15.
+	 * @return Whether one of the lanes of {@link WordScorer#ones} holds value.
+	 */
+	private boolean hasLane(long lanes, int value) {
+		long diff = lanes ^ (ones * value);
+		return ((diff - ones) & ~diff & (ones << 3)) != 0;
+	}
+}
@@ -0,0 +1,12 @@
+/**
+ * This package contains everything that is required for storing and querying
+ * the words of the English dictionary used in combat. The words are accessed
+ * through the {@link dictionary.Lexicon Lexicon} interface, which allows the
+ * storage of the dictionary to change without affecting the
+ * {@link frame.GameGraphics game}.
+ * 
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ */
+package dictionary;
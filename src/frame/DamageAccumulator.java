@@ -0,0 +1,160 @@
+package frame;
+
+import java.util.HashSet;
+
+import dictionary.Lexicon;
+import dictionary.WordScorer;
+
+/**
+ * <b>DamageAccumulator</b> keeps a running total of the damage dealt by the
+ * words written in a battle.
+ * <p>
+ * Each word is scored once, when it is added. The score of a word only
+ * depends on the weapon damage through how many times it is added, so the
+ * words are counted by the rule they satisfy, and the total for any weapon
+ * damage is found without scoring the words again. This allows the damage to
+ * follow changes of the equipped weapon or {@link items.GemInventory.Gem gem}.
+ * <p>
+ * The rules, for each unique word that is not the word being fought against:
+ * <p>
+ * A word in the dictionary sharing a substring of at least 3 letters deals
+ * twice the substring length plus twice the weapon damage.
+ * <p>
+ * Otherwise, a word in the dictionary sharing at least 3 letters deals the
+ * amount of shared letters plus the weapon damage.
+ * <p>
+ * A word not in the dictionary takes away twice the weapon damage plus 5.
+ *
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ * @see GameGraphics
+ */
+public class DamageAccumulator {
+	/**
+	 * Compares words with the word the user is fighting against.
+	 */
+	private WordScorer scorer;
+
+	/**
+	 * The dictionary the words are checked against.
+	 */
+	private Lexicon dictionary;
+
+	/**
+	 * The words that were already scored.
+	 */
+	private HashSet<String> words;
+
+	/**
+	 * The amount of words that share a substring of at least 3 letters.
+	 */
+	private int substrWords;
+
+	/**
+	 * The sum of twice the substring length of every word counted by
+	 * {@link DamageAccumulator#substrWords}.
+	 */
+	private int substrDamage;
+
+	/**
+	 * The amount of words that share at least 3 letters, but not a substring
+	 * of at least 3 letters.
+	 */
+	private int letterWords;
+
+	/**
+	 * The sum of the shared letters of every word counted by
+	 * {@link DamageAccumulator#letterWords}.
+	 */
+	private int letterDamage;
+
+	/**
+	 * The amount of words not in the dictionary.
+	 */
+	private int invalidWords;
+
+	/**
+	 * Creates an empty <b>DamageAccumulator</b> for a battle.
+	 *
+	 * @param damageWord
+	 *            the word the user is fighting against.
+	 * @param dictionary
+	 *            the dictionary the words are checked against.
+	 */
+	public DamageAccumulator(String damageWord, Lexicon dictionary) {
+		scorer = new WordScorer(damageWord);
+		this.dictionary = dictionary;
+		words = new HashSet<String>();
+		substrWords = 0;
+		substrDamage = 0;
+		letterWords = 0;
+		letterDamage = 0;
+		invalidWords = 0;
+	}
+
+	/**
+	 * Scores a word written by the user. Empty words, repeated words and the
+	 * word being fought against are ignored.
+	 *
+	 * @param word
+	 *            the upper-case word written.
+	 * @return Whether the word was scored.
+	 */
+	public boolean addWord(String word) {
+		if (word.equals("") || word.equals(scorer.getTarget()) || !words.add(word))
+			return false;
+
+		if (!dictionary.contains(word)) {
+			invalidWords++;
+			return true;
+		}
+
+		int substrLen = Math.max(2, scorer.longestSubstr(word));
+		int similiarLetters = scorer.commonLetters(word);
+		if (substrLen >= 3) {
+			substrWords++;
+			substrDamage += substrLen * 2;
+		} else if (similiarLetters >= 3) {
+			letterWords++;
+			letterDamage += similiarLetters;
+		}
+		return true;
+	}
+
+	/**
+	 * Finds the damage a single word in the dictionary deals, following the
+	 * same rules as {@link DamageAccumulator#addWord(String)}.
+	 *
+	 * @param substrLen
+	 *            the length of the longest substring the word shares with the
+	 *            word being fought against.
+	 * @param similiarLetters
+	 *            the amount of letters the word shares with the word being
+	 *            fought against.
+	 * @param weaponDamage
+	 *            the damage of the equipped weapon, including its
+	 *            {@link items.GemInventory.Gem gem}.
+	 * @return The damage the word deals, which is 0 if it matches no rule.
+	 */
+	public static int getWordDamage(int substrLen, int similiarLetters, int weaponDamage) {
+		if (substrLen >= 3)
+			return substrLen * 2 + weaponDamage * 2;
+		if (similiarLetters >= 3)
+			return similiarLetters + weaponDamage;
+		return 0;
+	}
+
+	/**
+	 * Finds the total damage of all the words scored so far.
+	 *
+	 * @param weaponDamage
+	 *            the damage of the equipped weapon, including its
+	 *            {@link items.GemInventory.Gem gem}.
+	 * @return The total damage dealt.
+	 */
+	public int getDamage(int weaponDamage) {
+		return substrDamage + substrWords * weaponDamage * 2 + letterDamage + letterWords * weaponDamage
+				- invalidWords * (weaponDamage * 2 + 5);
+	}
+}
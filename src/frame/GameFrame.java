@@ -36,13 +36,14 @@ public class GameFrame extends JFrame {
 	}
 
 	/**
-	 * Entry point of the program, which initializes the only frame, the
-	 * <b>GameFrame</b>.
+	 * Entry point of the program, which starts loading the dictionary and
+	 * initializes the only frame, the <b>GameFrame</b>.
 	 * 
 	 * @param args
 	 *            Unused; required by JVM.
 	 */
 	public static void main(String[] args) {
+		GameGraphics.preloadDictionary();
 		new GameFrame();
 	}
 }
@@ -1,26 +1,29 @@
 package frame;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.Point;
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Scanner;
 
 import characters.Enemy;
 import characters.MainCharacter;
+import dictionary.DamageSolver;
+import dictionary.LexiconLoader;
 import items.GemInventory;
 import items.Item;
 import items.SpellInventory;
+import mapping.FogMask;
+import mapping.MapCache;
 import mapping.Tile;
 import mapping.TileMap;
 import mapping.Visibility;
+import mapping.WorldPack;
 
 /**
  * <b>GameGraphics</b> merges all the {@link mapping.TileMap maps} used into the
@@ -41,15 +44,44 @@ import mapping.Visibility;
  */
 public class GameGraphics {
 	/**
-	 * All the words in the English dictionary provided by SIL
+	 * Loads all the words in the English dictionary provided by SIL, and the
+	 * indexes used to choose the words the user fights against and to find
+	 * the words the user can still spell.
 	 */
-	private final static HashSet<String> DICTIONARY = initDic();
+	private final static LexiconLoader DICTIONARY = new LexiconLoader(
+			new File("resources/miscellaneous/wordsEn.dic"), new File("resources/miscellaneous/wordsEn.txt"));
 
 	/**
-	 * Stores all the {@link mapping.TileMap maps} in the game, and provides
-	 * access to them through their name.
+	 * The longest time spent drawing words at the start of a battle before
+	 * settling for the most damaging one, in nanoseconds. It is about one
+	 * frame of the {@link GamePanel game loop}, which waits for the words.
 	 */
-	private HashMap<String, TileMap> game;
+	private final static long WORD_TIME_LIMIT = 16000000;
+
+	/**
+	 * Whether the edge of the vision on level 3 fades into the darkness,
+	 * instead of ending at the edge of a {@link mapping.Tile tile}.
+	 */
+	private final static boolean SOFT_FOG = false;
+
+	/**
+	 * The amount of unchanged {@link mapping.TileMap maps} kept loaded, which
+	 * leaves room for the current one and everything it leads to.
+	 */
+	private final static int MAP_CACHE_SIZE = 12;
+
+	/**
+	 * The levels and kinds of the {@link mapping.TileMap maps}, and where each
+	 * of their doors lead to.
+	 */
+	private WorldPack world;
+
+	/**
+	 * Loads the {@link mapping.TileMap maps} in the game as they are needed,
+	 * and provides access to them through their id in
+	 * {@link GameGraphics#world}.
+	 */
+	private MapCache game;
 
 	/**
 	 * The {@link characters.MainCharacter character} that is accessible to the
@@ -64,10 +96,61 @@ public class GameGraphics {
 	private Point playerPos;
 
 	/**
-	 * The name of the current {@link mapping.TileMap map}, as defined by the
-	 * .map files.
+	 * The last image of the equipped {@link items.ItemSet items}, or null if
+	 * it has not been drawn yet.
+	 */
+	private BufferedImage itemSetImage;
+
+	/**
+	 * The versions of the {@link items.ItemSet items} and equipped
+	 * {@link items.GemInventory.Gem gems} that
+	 * {@link GameGraphics#itemSetImage} was drawn from. Each image of the
+	 * belongings of the {@link characters.MainCharacter player} is only drawn
+	 * again once the version of what it shows has changed.
+	 */
+	private int itemSetVersion, equippedGemsVersion;
+
+	/**
+	 * The last image of the {@link items.ItemInventory inventory}, or null if
+	 * it has not been drawn yet.
+	 */
+	private BufferedImage itemInventoryImage;
+
+	/**
+	 * The version of the {@link items.ItemInventory inventory} that
+	 * {@link GameGraphics#itemInventoryImage} was drawn from.
+	 */
+	private int itemInventoryVersion;
+
+	/**
+	 * The last image of the {@link items.GemInventory gems}, or null if it has
+	 * not been drawn yet.
+	 */
+	private BufferedImage gemInventoryImage;
+
+	/**
+	 * The version of the {@link items.GemInventory gems} that
+	 * {@link GameGraphics#gemInventoryImage} was drawn from.
+	 */
+	private int gemInventoryVersion;
+
+	/**
+	 * The last image of the {@link items.SpellInventory spells}, or null if it
+	 * has not been drawn yet.
+	 */
+	private BufferedImage spellInventoryImage;
+
+	/**
+	 * The version of the {@link items.SpellInventory spells} that
+	 * {@link GameGraphics#spellInventoryImage} was drawn from.
 	 */
-	private String curMap;
+	private int spellInventoryVersion;
+
+	/**
+	 * The id of the current {@link mapping.TileMap map} in
+	 * {@link GameGraphics#world}.
+	 */
+	private int curMap;
 
 	/**
 	 * The current {@link characters.Enemy enemy} being contested in a battle.
@@ -75,21 +158,39 @@ public class GameGraphics {
 	private Enemy enemy;
 
 	/**
-	 * The words the user has written in the current battle.
+	 * The word the user is currently writing in the current battle.
+	 */
+	private String curWord;
+
+	/**
+	 * The damage dealt by the words the user has written in the current
+	 * battle.
 	 */
-	private ArrayList<String> damageWords;
+	private DamageAccumulator damage;
 
 	/**
 	 * The word the user is fighting against.
 	 */
 	private String damageWord;
 
+	/**
+	 * Finds the most damage that can be dealt against each word drawn, kept
+	 * between battles so that its buffers are only made once.
+	 */
+	private DamageSolver solver;
+
 	/**
 	 * In combat, this array stores which characters from the
 	 * ({@link items.ItemSet items} have already been used.
 	 */
 	private int[] charsUsed;
 
+	/**
+	 * The amount of dictionary words that can still be spelled with the
+	 * characters that have not been used in the current battle.
+	 */
+	private int possibleWords;
+
 	/**
 	 * The amount of points this game-play has earned, used for high score.
 	 */
@@ -105,9 +206,6 @@ public class GameGraphics {
 	 * A constructor to load a new game.
 	 */
 	public GameGraphics() {
-		game = new HashMap<String, TileMap>();
-
-		Tile.reset();
 		Item.reset();
 
 		player = null;
@@ -116,13 +214,10 @@ public class GameGraphics {
 
 		do {
 			try {
-				for (File map : new File("resources/maps").listFiles()) {
-					String name = map.getName();
-					name = name.substring(0, name.indexOf('.'));
-					game.put(name, new TileMap(name));
-				}
-
-				curMap = "k1";
+				world = WorldPack.getWorld();
+				game = new MapCache(world, MAP_CACHE_SIZE);
+				curMap = world.getId("k1");
+				game.prefetch(getNeighbours(curMap));
 				player = new MainCharacter();
 				playerPos = new Point(5, 3);
 				firstKey = true;
@@ -132,6 +227,15 @@ public class GameGraphics {
 		} while (player == null);
 	}
 
+	/**
+	 * Starts loading the dictionary in the background, so that it is ready by
+	 * the time the first battle starts. Battles wait for the dictionary if it
+	 * is still loading.
+	 */
+	public static void preloadDictionary() {
+		DICTIONARY.start();
+	}
+
 	/**
 	 * Attempts to move the {@link characters.MainCharacter player}, and returns
 	 * the resulting message.
@@ -149,7 +253,7 @@ public class GameGraphics {
 
 		Point newLoc = new Point(playerPos.x + dir.x, playerPos.y + dir.y);
 
-		if (curMap.equals("m15") && Math.random() < 0.25) {
+		if (world.isConfusing(curMap) && Math.random() < 0.25) {
 			newLoc = new Point(playerPos.x + dir.x * -1, playerPos.y + dir.y * -1);
 		}
 
@@ -158,27 +262,30 @@ public class GameGraphics {
 		String message;
 
 		if (newLoc.x == -1 || newLoc.x == 11 || newLoc.y == -1 || newLoc.y == 11) {
-			return doorMove(dir);
+			message = doorMove(dir);
+			game.prefetch(getNeighbours(curMap));
+			return message;
 		} else {
-			message = game.get(curMap).getTile(newLoc).getMessage();
-			if (game.get(curMap).getTile(newLoc).isPassable()) {
+			TileMap map = game.get(curMap);
+			message = map.getMessage(newLoc);
+			if (map.isPassable(newLoc)) {
 				playerPos = new Point(newLoc);
-				double chance = game.get(curMap).getTile(playerPos).getEnemyChance();
+				double chance = map.getEnemyChance(playerPos);
 				double compare = Math.random();
 				if (message != null && message.equals("I have found a special item!")) {
-					game.get(curMap).setTileEmpty(newLoc, getLevel());
+					map.setTileEmpty(newLoc);
 					player.addItem(Item.getItem(3));
 				} else if (message != null && message.equals("I have found a letter!")) {
-					player.getInventory().addLetter((char) (chance));
-					game.get(curMap).setTileEmpty(newLoc, getLevel());
+					player.getInventory().addLetter(map.getLetter(newLoc));
+					map.setTileEmpty(newLoc);
 				} else if (chance != 1.0 && compare < chance) {
 					return "";
 				} else if (chance == 1.0) {
-					game.get(curMap).setTileEmpty(newLoc, getLevel());
+					map.setTileEmpty(newLoc);
 				}
 			} else if (message != null && message.equals("The door is locked. I need to find a key to open it!")) {
 				if (player.getInventory().getKey()) {
-					game.get(curMap).unlockDoor(newLoc, getLevel());
+					map.unlockDoor(newLoc);
 					playerPos = new Point(newLoc);
 					return null;
 				}
@@ -201,67 +308,93 @@ public class GameGraphics {
 
 	/**
 	 * Movement through a door, which requires a change of
-	 * {@link mapping.TileMap map} rather than position.
+	 * {@link mapping.TileMap map} rather than position. The
+	 * {@link mapping.TileMap map} reached, and any message shown on the way,
+	 * are found in {@link GameGraphics#world}. If there is no
+	 * {@link mapping.TileMap map} that way, the {@link characters.MainCharacter
+	 * player} does not move.
 	 * 
 	 * @param dir
 	 *            a point to represent the direction of movement, with dir.x
 	 *            being the change in x, and dir.y being the change in y.
-	 * @return String represented by null, used for the return of the message
-	 *         from {@link GameGraphics#move(Point)}.
+	 * @return The message of the door, or null if it has none, used for the
+	 *         return of the message from {@link GameGraphics#move(Point)}.
 	 */
 	private String doorMove(Point dir) {
-		if (curMap.equals("k7") && dir.y == 1) {
-			curMap = "k11";
+		if (world.isIntersection(curMap) && Math.random() < 0.5) {
+			int[] intersections = world.getIntersections();
+			curMap = intersections[(int) (Math.random() * intersections.length)];
+			playerPos = new Point(2, 5);
+			return "I got lost, and arrived at a random intersection!";
+		}
+
+		int side = getSide(dir);
+		int next = world.getPortal(curMap, side);
+		if (next == WorldPack.NONE)
+			return null;
+
+		Point arrival = world.getArrival(curMap, side);
+		if (arrival != null) {
+			playerPos = arrival;
+		} else if (dir.x == 1) {
+			playerPos.x = 1;
+		} else if (dir.x == -1) {
+			playerPos.x = 9;
+		} else if (dir.y == 1) {
 			playerPos.y = 1;
-			GameMusic.endMusic();
-			GameMusic.playSound(2);
-			return "I exit the temple into a forest!";
-		} else if (curMap.equals("k11") && dir.y == -1) {
-			curMap = "k7";
+		} else if (dir.y == -1) {
 			playerPos.y = 9;
+		}
+
+		if (world.getLevel(next) != world.getLevel(curMap)) {
 			GameMusic.endMusic();
-			GameMusic.playSound(1);
-			return "I leave the clearing and enter the temple of Shutka!";
-		} else if (curMap.equals("k13") && dir.x == -1) {
-			curMap = "s5";
-			playerPos = new Point(5, 9);
-			GameMusic.endMusic();
-			GameMusic.playSound(3);
-			return "I descend into ancient mystical caves!";
-		} else if (curMap.equals("s5") && dir.y == 1) {
-			curMap = "k13";
-			playerPos = new Point(1, 1);
-			GameMusic.endMusic();
-			GameMusic.playSound(2);
-			return "I climb back up, into the forest!";
-		} else if (curMap.equals("q1") && dir.x == 1) {
-			curMap = "g1";
-			playerPos = new Point(1, 9);
-			GameMusic.endMusic();
-			GameMusic.playSound(1);
-			return "I travel through the secret passage into the temple of Shutka!";
-		} else if ((curMap.equals("g11") || curMap.equals("i13") || curMap.equals("i15") || curMap.equals("k15"))
-				&& Math.random() < 0.5) {
-			String[] possibilities = { "g11", "i13", "i15", "k15" };
-			curMap = possibilities[(int) (Math.random() * 4)];
-			playerPos = new Point(2, 5);
-			return "I got lost, and arrived at a random intersection!";
+			GameMusic.playSound(world.getLevel(next));
+		}
+		String message = world.getMessage(curMap, side);
+		curMap = next;
+		return message;
+	}
+
+	/**
+	 * @param dir
+	 *            a point to represent the direction of movement, with dir.x
+	 *            being the change in x, and dir.y being the change in y.
+	 * @return The side of a {@link mapping.TileMap map} left through when
+	 *         moving in that direction, as defined by {@link WorldPack}.
+	 */
+	private static int getSide(Point dir) {
+		if (dir.x == 1) {
+			return WorldPack.RIGHT;
+		} else if (dir.x == -1) {
+			return WorldPack.LEFT;
+		} else if (dir.y == 1) {
+			return WorldPack.DOWN;
 		} else {
-			if (dir.x == 1) {
-				curMap = (char) (curMap.charAt(0) + 2) + curMap.substring(1);
-				playerPos.x = 1;
-			} else if (dir.x == -1) {
-				curMap = (char) (curMap.charAt(0) - 2) + curMap.substring(1);
-				playerPos.x = 9;
-			} else if (dir.y == 1) {
-				curMap = curMap.substring(0, 1) + (Integer.parseInt(curMap.substring(1)) + 2);
-				playerPos.y = 1;
-			} else if (dir.y == -1) {
-				curMap = curMap.substring(0, 1) + (Integer.parseInt(curMap.substring(1)) - 2);
-				playerPos.y = 9;
+			return WorldPack.UP;
+		}
+	}
+
+	/**
+	 * Finds every {@link mapping.TileMap map} that can be reached from a
+	 * {@link mapping.TileMap map} through a single door, so that they can be
+	 * loaded before the {@link characters.MainCharacter player} gets there.
+	 * 
+	 * @param map
+	 *            the id of the {@link mapping.TileMap map}.
+	 * @return The ids of the {@link mapping.TileMap maps} that can be reached,
+	 *         some of which may be {@link WorldPack#NONE}.
+	 */
+	private ArrayList<Integer> getNeighbours(int map) {
+		ArrayList<Integer> out = new ArrayList<Integer>();
+		for (int side = 0; side < 4; side++) {
+			out.add(world.getPortal(map, side));
+		}
+		if (world.isIntersection(map)) {
+			for (int intersection : world.getIntersections()) {
+				out.add(intersection);
 			}
-			return null;
 		}
+		return out;
 	}
 
 	/**
@@ -274,28 +407,39 @@ public class GameGraphics {
 	 *         tiles} being black.
 	 */
 	public Image getMap() {
-		Image out = game.get(curMap).drawMap();
+		Image out = new BufferedImage(Tile.TILE_SIZE * 11, Tile.TILE_SIZE * 11, BufferedImage.TYPE_INT_ARGB);
+		Graphics g = out.getGraphics();
+		drawMap(g, 0, 0);
+		g.dispose();
+		return out;
+	}
 
-		Visibility curVis = game.get(curMap).getTile(playerPos).getVisibility();
-		Image character = (curVis == Visibility.ALL_BUT_CURRENT ? getPartialCharacter() : player.drawCharacter());
+	/**
+	 * Draws the current {@link mapping.TileMap map} straight onto g, followed
+	 * by the {@link characters.MainCharacter player} and the darkness of
+	 * level 3. The {@link mapping.TileMap map} is only rendered again where it
+	 * changed, and nothing is copied besides drawing it onto g.
+	 * 
+	 * @param g
+	 *            the {@link java.awt.Graphics Graphics} being drawn on.
+	 * @param x
+	 *            the x-coordinate of the top left corner of the
+	 *            {@link mapping.TileMap map}.
+	 * @param y
+	 *            the y-coordinate of the top left corner of the
+	 *            {@link mapping.TileMap map}.
+	 */
+	public void drawMap(Graphics g, int x, int y) {
+		g.drawImage(game.get(curMap).drawMap(), x, y, null);
 
-		Graphics g = out.getGraphics();
-		g.drawImage(character, playerPos.x * Tile.TILE_SIZE, playerPos.y * Tile.TILE_SIZE, null);
+		Visibility curVis = game.get(curMap).getVisibility(playerPos);
+		Image character = (curVis == Visibility.ALL_BUT_CURRENT ? getPartialCharacter() : player.drawCharacter());
+		g.drawImage(character, x + playerPos.x * Tile.TILE_SIZE, y + playerPos.y * Tile.TILE_SIZE, null);
 
-		if (getLevel() == 3 && (!curMap.equals("o5") && !curMap.equals("q5") && !curMap.equals("q3"))) {
+		if (getLevel() == 3 && !world.isLit(curMap)) {
 			int vision = player.getInventory().increaseInVision();
-			g.setColor(new Color(0, 0, 0));
-			for (int x = 0; x < 11; x++) {
-				for (int y = 0; y < 11; y++) {
-					if (!((playerPos.x - vision <= x && playerPos.x + vision >= x)
-							&& (playerPos.y - vision <= y && playerPos.y + vision >= y))) {
-						g.fillRect(Tile.TILE_SIZE * x, Tile.TILE_SIZE * y, Tile.TILE_SIZE, Tile.TILE_SIZE);
-					}
-				}
-			}
+			FogMask.get(vision, SOFT_FOG).draw(g, x, y, playerPos);
 		}
-
-		return out;
 	}
 
 	/**
@@ -322,19 +466,24 @@ public class GameGraphics {
 	 * {@link items.ItemSet items} to be visible.
 	 * 
 	 * @return An {@link java.awt.Image image} containing the currently equipped
-	 *         weapon and shield.
+	 *         weapon and shield. It is only drawn again once they change, so
+	 *         it must not be drawn on.
 	 */
 	public Image getItemSetImage() {
-		Image out = new BufferedImage(250, 550, BufferedImage.TYPE_INT_ARGB);
-		for (int i = 0; i < out.getWidth(null); i++)
-			for (int j = 0; j < out.getHeight(null); j++)
-				((BufferedImage) out).setRGB(i, j, new Color(0, 0, 0, 0).getRGB());
-		Graphics g = out.getGraphics();
+		if (itemSetImage != null && itemSetVersion == player.getItemSet().getVersion()
+				&& equippedGemsVersion == player.getVersion())
+			return itemSetImage;
+		itemSetVersion = player.getItemSet().getVersion();
+		equippedGemsVersion = player.getVersion();
+		if (itemSetImage == null)
+			itemSetImage = new BufferedImage(250, 550, BufferedImage.TYPE_INT_ARGB);
+		BufferedImage out = itemSetImage;
+		Graphics g = clear(out);
 		Item weapon = player.getItemSet().getWeapon();
 		Item shield = player.getItemSet().getShield();
 		GemInventory.Gem[] gems = player.getEquipedGems();
 
-		g.setFont(new Font("Calibri", Font.PLAIN, 18));
+		g.setFont(TextCache.getFont("Calibri", 18));
 
 		if (weapon != null) {
 			g.drawImage(weapon.drawItem(), 27, 95, null);
@@ -374,6 +523,7 @@ public class GameGraphics {
 			g.drawString((char) ('A' + i) + " - " + player.getItemSet().getCharAvail((char) (i + 'A')),
 					27 + i / 13 * 50, 255 + (i % 13) * 20);
 		}
+		g.dispose();
 
 		return out;
 	}
@@ -383,26 +533,31 @@ public class GameGraphics {
 	 * currently in the {@link items.ItemInventory inventory} to be visible.
 	 * 
 	 * @return An {@link java.awt.Image image} containing all unequipped
-	 *         {@link items.Item items}.
+	 *         {@link items.Item items}. It is only drawn again once the
+	 *         {@link items.ItemInventory inventory} changes, so it must not be
+	 *         drawn on.
 	 */
 	public Image getItemInventory() {
-		Image out = new BufferedImage(550, 250, BufferedImage.TYPE_INT_ARGB);
-		for (int i = 0; i < out.getWidth(null); i++)
-			for (int j = 0; j < out.getHeight(null); j++)
-				((BufferedImage) out).setRGB(i, j, new Color(0, 0, 0, 0).getRGB());
+		if (itemInventoryImage != null && itemInventoryVersion == player.getInventory().getVersion())
+			return itemInventoryImage;
+		itemInventoryVersion = player.getInventory().getVersion();
+		if (itemInventoryImage == null)
+			itemInventoryImage = new BufferedImage(550, 250, BufferedImage.TYPE_INT_ARGB);
+		BufferedImage out = itemInventoryImage;
 		ArrayList<Item> items = player.getInventory().getItems();
-		Graphics g = out.getGraphics();
+		Graphics g = clear(out);
 		int keys = 0;
 
 		for (int i = 0; i < items.size(); i++) {
 			g.drawImage(items.get(i).drawItem(), 50 * (i % 11), 150 * (i / 11), null);
 		}
 
-		g.setFont(new Font("Calibri", Font.PLAIN, 18));
+		g.setFont(TextCache.getFont("Calibri", 18));
 		g.setColor(new Color(255, 255, 255, 255));
 		g.drawString("You have " + player.getInventory().getKeys() + " key" + (keys == 1 ? "" : "s") + "."
 				+ (player.getInventory().getTorch() ? " You have a torch." : ""), 0, 125);
 		g.drawString("You have the letters: " + player.getInventory().getLetters(), 0, 145);
+		g.dispose();
 
 		return out;
 	}
@@ -412,19 +567,23 @@ public class GameGraphics {
 	 * {@link items.GemInventory.Gem gems} to be visible.
 	 * 
 	 * @return An {@link java.awt.Image image} containing the unequipped
-	 *         {@link items.GemInventory.Gem gems}.
+	 *         {@link items.GemInventory.Gem gems}. It is only drawn again once
+	 *         they change, so it must not be drawn on.
 	 */
 	public Image getGemInventory() {
-		Image out = new BufferedImage(120, 120, BufferedImage.TYPE_INT_ARGB);
-		for (int i = 0; i < out.getWidth(null); i++)
-			for (int j = 0; j < out.getHeight(null); j++)
-				((BufferedImage) out).setRGB(i, j, new Color(0, 0, 0, 0).getRGB());
+		if (gemInventoryImage != null && gemInventoryVersion == player.getGems().getVersion())
+			return gemInventoryImage;
+		gemInventoryVersion = player.getGems().getVersion();
+		if (gemInventoryImage == null)
+			gemInventoryImage = new BufferedImage(120, 120, BufferedImage.TYPE_INT_ARGB);
+		BufferedImage out = gemInventoryImage;
 		ArrayList<GemInventory.Gem> gems = player.getGems().getGems();
-		Graphics g = out.getGraphics();
+		Graphics g = clear(out);
 
 		for (int i = 0; i < gems.size(); i++) {
 			g.drawImage(gems.get(i).drawGem(), 40 * (i % 3), 40 * (i / 3), null);
 		}
+		g.dispose();
 
 		return out;
 	}
@@ -433,23 +592,44 @@ public class GameGraphics {
 	 * Allows the {@link java.awt.Image image} of the
 	 * {@link items.SpellInventory currently available spells} to be visible.
 	 * 
-	 * @return An {@link java.awt.Image image} containing the unused spells.
+	 * @return An {@link java.awt.Image image} containing the unused spells. It
+	 *         is only drawn again once they change, so it must not be drawn
+	 *         on.
 	 */
 	public Image getSpellInventory() {
-		Image out = new BufferedImage(120, 120, BufferedImage.TYPE_INT_ARGB);
-		for (int i = 0; i < out.getWidth(null); i++)
-			for (int j = 0; j < out.getHeight(null); j++)
-				((BufferedImage) out).setRGB(i, j, new Color(0, 0, 0, 0).getRGB());
+		if (spellInventoryImage != null && spellInventoryVersion == player.getSpells().getVersion())
+			return spellInventoryImage;
+		spellInventoryVersion = player.getSpells().getVersion();
+		if (spellInventoryImage == null)
+			spellInventoryImage = new BufferedImage(120, 120, BufferedImage.TYPE_INT_ARGB);
+		BufferedImage out = spellInventoryImage;
 		ArrayList<Color> spells = player.getSpells().getSpells();
-		Graphics g = out.getGraphics();
+		Graphics g = clear(out);
 
 		for (int i = 0; i < spells.size(); i++) {
 			g.drawImage(SpellInventory.drawSpell(spells.get(i)), 40 * (i % 3), 40 * (i / 3), null);
 		}
+		g.dispose();
 
 		return out;
 	}
 
+	/**
+	 * Erases an {@link java.awt.Image image} so that it can be drawn again.
+	 * 
+	 * @param image
+	 *            the {@link java.awt.Image image} being erased.
+	 * @return The {@link java.awt.Graphics Graphics} of the erased
+	 *         {@link java.awt.Image image}.
+	 */
+	private static Graphics clear(BufferedImage image) {
+		Graphics2D g = image.createGraphics();
+		g.setComposite(AlphaComposite.Clear);
+		g.fillRect(0, 0, image.getWidth(), image.getHeight());
+		g.setComposite(AlphaComposite.SrcOver);
+		return g;
+	}
+
 	/**
 	 * Creates a box presenting information about the {@link items.Item item}
 	 * currently being scrolled-over.
@@ -470,23 +650,22 @@ public class GameGraphics {
 			String desc = m.getDescription();
 			int splitPoint = desc.substring(0, desc.length() / 2).lastIndexOf(' ');
 
-			g.setColor(new Color(255, 255, 255));
-			g.setFont(new Font("Comic Sans MS", Font.PLAIN, 15));
-
-			g.drawString((m.getType() ? "Weapon" : "Shield") + " - " + m.getName(), 5, 25);
-			g.drawString((m.getType() ? "Damage" : "Defence") + ": " + m.getStat() + "     Gem Slot Type: "
-					+ (m.getGemSlotType() < 0 ? "-" : "+"), 5, 45);
-			g.setFont(new Font("Comic Sans MS", Font.PLAIN, 9));
-			g.drawString(desc.substring(0, splitPoint), 5, 60);
-			g.drawString(desc.substring(splitPoint + 1), 5, 75);
+			Font font = TextCache.getFont("Comic Sans MS", 15);
+			TextCache.drawString(g, (m.getType() ? "Weapon" : "Shield") + " - " + m.getName(), font, Color.WHITE, 5,
+					25);
+			TextCache.drawString(g, (m.getType() ? "Damage" : "Defence") + ": " + m.getStat() + "     Gem Slot Type: "
+					+ (m.getGemSlotType() < 0 ? "-" : "+"), font, Color.WHITE, 5, 45);
+			font = TextCache.getFont("Comic Sans MS", 9);
+			TextCache.drawString(g, desc.substring(0, splitPoint), font, Color.WHITE, 5, 60);
+			TextCache.drawString(g, desc.substring(splitPoint + 1), font, Color.WHITE, 5, 75);
 			String temp1 = "";
 			String temp2 = "";
 			for (int i = 0; i < 13; i++) {
 				temp1 += (char) (i + 'A') + ":" + m.getCharAvail(i) + " ";
 				temp2 += (char) (i + 'A' + 13) + ":" + m.getCharAvail(i + 13) + " ";
 			}
-			g.drawString(temp1, 5, 90);
-			g.drawString(temp2, 5, 100);
+			TextCache.drawString(g, temp1, font, Color.WHITE, 5, 90);
+			TextCache.drawString(g, temp2, font, Color.WHITE, 5, 100);
 		}
 
 		return out;
@@ -512,10 +691,8 @@ public class GameGraphics {
 			Graphics g = out.getGraphics();
 			GemInventory.Gem m = player.getGems().getGems().get(pos);
 
-			g.setColor(new Color(255, 255, 255));
-			g.setFont(new Font("Comic Sans MS", Font.PLAIN, 20));
-
-			g.drawString("" + Math.abs(m.getValue()), 5, out.getHeight(null) - 5);
+			TextCache.drawString(g, "" + Math.abs(m.getValue()), TextCache.getFont("Comic Sans MS", 20), Color.WHITE,
+					5, out.getHeight(null) - 5);
 		}
 
 		return out;
@@ -526,13 +703,7 @@ public class GameGraphics {
 	 *         {@link mapping.TileMap map}.
 	 */
 	public int getLevel() {
-		if (Integer.parseInt(curMap.substring(1)) >= 11) {
-			return 2;
-		} else if ("opqrstu".contains(curMap.substring(0, 1))) {
-			return 3;
-		} else {
-			return 1;
-		}
+		return world.getLevel(curMap);
 	}
 
 	/**
@@ -597,13 +768,7 @@ public class GameGraphics {
 	 * Initializes all variables related to a regular battle.
 	 */
 	public void initiateBattle() {
-		damageWords = new ArrayList<String>();
-		damageWords.add("");
-		do {
-			damageWord = (String) DICTIONARY.toArray()[(int) (Math.random() * DICTIONARY.size())];
-		} while (damageWord.length() < 5);
-		charsUsed = new int[26];
-		enemy = new Enemy(new Color((float) Math.random(), (float) Math.random(), (float) Math.random()),
+		startBattle(
 				player.getItemSet().getDamage() * (1 + getLevel()) + (int) (Math.random() * Math.pow(5, getLevel())),
 				Enemy.NAMES[getLevel() - 1][(int) (Math.random() * Enemy.NAMES[getLevel() - 1].length)]);
 	}
@@ -612,12 +777,76 @@ public class GameGraphics {
 	 * Initializes all variables related to a boss battle.
 	 */
 	public void initiateBossBattle() {
-		initiateBattle();
-		enemy = new Enemy(new Color((float) Math.random(), (float) Math.random(), (float) Math.random()),
-				player.getItemSet().getDamage() * 2 + getLevel() * 30 + (int) (Math.random() * 40),
+		startBattle(player.getItemSet().getDamage() * 2 + getLevel() * 30 + (int) (Math.random() * 40),
 				Enemy.NAMES[3][getLevel() - 1]);
 	}
 
+	/**
+	 * Initializes all variables related to a battle against an
+	 * {@link characters.Enemy enemy}.
+	 * 
+	 * @param hp
+	 *            the HP rolled for the {@link characters.Enemy enemy}, which
+	 *            is lowered if the battle cannot be won.
+	 * @param name
+	 *            the name of the {@link characters.Enemy enemy}.
+	 */
+	private void startBattle(int hp, String name) {
+		curWord = "";
+		charsUsed = new int[26];
+		hp = chooseDamageWord(hp);
+		damage = new DamageAccumulator(damageWord, DICTIONARY.getLexicon());
+		countPossibleWords();
+		enemy = new Enemy(new Color((float) Math.random(), (float) Math.random(), (float) Math.random()), hp, name);
+	}
+
+	/**
+	 * Draws a new {@link GameGraphics#damageWord damageWord} that can be
+	 * beaten with the characters of the {@link characters.MainCharacter
+	 * player}. If none of the words drawn in
+	 * {@link GameGraphics#WORD_TIME_LIMIT} can be, the most damaging one is
+	 * kept and hp is lowered to one less than its damage, so that it can be
+	 * beaten. hp is only kept if the time ran out before that word was known
+	 * not to be beatable.
+	 * 
+	 * @param hp
+	 *            the HP rolled for the {@link characters.Enemy enemy}.
+	 * @return The HP the {@link characters.Enemy enemy} should have.
+	 */
+	private int chooseDamageWord(int hp) {
+		if (solver == null)
+			solver = new DamageSolver(DICTIONARY.getLetterIndex());
+		int[] available = new int[26];
+		for (int i = 0; i < 26; i++) {
+			available[i] = getAvailable((char) ('A' + i));
+		}
+
+		DamageSolver.Solution best = null;
+		String bestWord = null;
+		long deadline = System.nanoTime() + WORD_TIME_LIMIT;
+		long timeLeft = WORD_TIME_LIMIT;
+		while (timeLeft > 0) {
+			String word = DICTIONARY.getWordIndex().randomWord(5, 13);
+			DamageSolver.Solution solution = solver.solve(word, available, getWeaponDamage(),
+					Math.min(timeLeft, DamageSolver.TIME_LIMIT));
+			if (solution.getDamage() > hp) {
+				damageWord = word;
+				return hp;
+			}
+			if (best == null || solution.getDamage() > best.getDamage()) {
+				best = solution;
+				bestWord = word;
+			}
+			timeLeft = deadline - System.nanoTime();
+		}
+		damageWord = bestWord;
+		if (best.getUpperBound() > hp)
+			return hp;
+		// The battle is won by dealing more damage than the HP, so with no
+		// damage at all the HP goes below 0 and the battle is won as is.
+		return best.getDamage() - 1;
+	}
+
 	/**
 	 * This method is used at the end of a battle to see if the
 	 * {@link characters.MainCharacter player} survived the battle. It
@@ -627,8 +856,9 @@ public class GameGraphics {
 	 *         false if the {@link characters.MainCharacter player} lost.
 	 */
 	public boolean endBattle() {
-		points += calculateDamage() - enemy.getHP();
-		return calculateDamage() > enemy.getHP();
+		int dealt = calculateDamage();
+		points += dealt - enemy.getHP();
+		return dealt > enemy.getHP();
 	}
 
 	/**
@@ -639,30 +869,17 @@ public class GameGraphics {
 	 *         the current battle.
 	 */
 	private int calculateDamage() {
-		HashSet<String> uniqueWords = new HashSet<String>();
-		for (String word : damageWords.subList(0, damageWords.size() - 1)) {
-			if (!word.equals(damageWord) && !word.equals(""))
-				uniqueWords.add(word);
-		}
-		int weaponDamage = player.getItemSet().getDamage() + (player.getEquipedGems()[0] == null ? 0
+		return damage.getDamage(getWeaponDamage());
+	}
+
+	/**
+	 * @return The damage of the equipped weapon, including the equipped
+	 *         {@link items.GemInventory.Gem gem}.
+	 */
+	private int getWeaponDamage() {
+		return player.getItemSet().getDamage() + (player.getEquipedGems()[0] == null ? 0
 				: player.getEquipedGems()[0].getValue())
 				* (player.getItemSet().getWeapon() == null ? 0 : player.getItemSet().getWeapon().getGemSlotType());
-		int damage = 0;
-
-		for (String word : uniqueWords) {
-			int substrLen = Math.max(2, longestSubstr(damageWord, word));
-			int similiarLetters = commonLetters(damageWord, word);
-			if (DICTIONARY.contains(word)) {
-				if (substrLen >= 3) {
-					damage += substrLen * 2 + weaponDamage * 2;
-				} else if (similiarLetters >= 3) {
-					damage += similiarLetters + weaponDamage;
-				}
-			} else {
-				damage -= weaponDamage * 2 + 5;
-			}
-		}
-		return damage;
 	}
 
 	/**
@@ -718,17 +935,16 @@ public class GameGraphics {
 				((BufferedImage) out).setRGB(i, j, new Color(0, 0, 0, 0).getRGB());
 		Graphics g = out.getGraphics();
 		g.drawImage(enemy.drawEnemy(), 25, 25, null);
-		g.setFont(new Font("Bauhaus 93", Font.PLAIN, 45));
-		g.setColor(new Color(255, 255, 255));
-		g.drawString(enemy.getName(), (550 - g.getFontMetrics().stringWidth(enemy.getName())) / 2, 35);
-		g.drawString(enemy.getHP() + " VS " + calculateDamage(),
-				(550 - g.getFontMetrics().stringWidth(enemy.getHP() + " VS " + calculateDamage())) / 2, 70);
-		g.setFont(new Font("Symbola", Font.PLAIN, 50));
+		Font font = TextCache.getFont("Bauhaus 93", 45);
+		TextCache.drawCentred(g, enemy.getName(), font, Color.WHITE, 550, 35);
+		TextCache.drawCentred(g, enemy.getHP() + " VS " + calculateDamage(), font, Color.WHITE, 550, 70);
+		String possible = possibleWords + " word" + (possibleWords == 1 ? "" : "s") + " still possible";
+		TextCache.drawCentred(g, possible, TextCache.getFont("Bauhaus 93", 20), Color.WHITE, 550, 95);
+		font = TextCache.getFont("Symbola", 50);
+		int width = TextCache.stringWidth(font, damageWord);
 		g.setColor(new Color(0, 0, 0));
-		g.fillRect((550 - g.getFontMetrics().stringWidth(damageWord)) / 2, 480,
-				g.getFontMetrics().stringWidth(damageWord), 60);
-		g.setColor(new Color(255, 255, 255));
-		g.drawString(damageWord, (550 - g.getFontMetrics().stringWidth(damageWord)) / 2, 535);
+		g.fillRect((550 - width) / 2, 480, width, 60);
+		TextCache.drawString(g, damageWord, font, Color.WHITE, (550 - width) / 2, 535);
 		return out;
 	}
 
@@ -736,7 +952,7 @@ public class GameGraphics {
 	 * @return The word the user is currently inputing.
 	 */
 	public String getCurWord() {
-		return damageWords.get(damageWords.size() - 1);
+		return curWord;
 	}
 
 	/**
@@ -747,11 +963,11 @@ public class GameGraphics {
 	 * @return Whether the letter was successfully added.
 	 */
 	public boolean incrementCurWord(char letter) {
-		if (damageWords.get(damageWords.size() - 1).length() >= 13
-				|| charsUsed[letter - 'A'] >= player.getItemSet().getCharAvail(letter))
+		if (curWord.length() >= 13 || charsUsed[letter - 'A'] >= player.getItemSet().getCharAvail(letter))
 			return false;
-		damageWords.set(damageWords.size() - 1, damageWords.get(damageWords.size() - 1) + letter);
+		curWord += letter;
 		charsUsed[letter - 'A']++;
+		countPossibleWords();
 		return true;
 	}
 
@@ -760,16 +976,32 @@ public class GameGraphics {
 	 * new word.
 	 */
 	public void finalizeCurWord() {
-		damageWords.add("");
+		damage.addWord(curWord);
+		curWord = "";
 	}
 
 	/**
 	 * Clears the current word, allowing the user to start on a new word.
 	 */
 	public void clearCurWord() {
-		for (int i = 0; i < damageWords.get(damageWords.size() - 1).length(); i++)
-			charsUsed[damageWords.get(damageWords.size() - 1).charAt(i) - 'A']--;
-		damageWords.set(damageWords.size() - 1, "");
+		for (int i = 0; i < curWord.length(); i++)
+			charsUsed[curWord.charAt(i) - 'A']--;
+		curWord = "";
+		countPossibleWords();
+	}
+
+	/**
+	 * @return Whether the current word is a word in the dictionary.
+	 */
+	public boolean isCurWordValid() {
+		return DICTIONARY.getLexicon().contains(getCurWord());
+	}
+
+	/**
+	 * @return Whether any word in the dictionary starts with the current word.
+	 */
+	public boolean isCurWordPrefix() {
+		return DICTIONARY.getLexicon().isPrefix(getCurWord());
 	}
 
 	public int getAvailable(char which) {
@@ -777,83 +1009,22 @@ public class GameGraphics {
 	}
 
 	/**
-	 * Finds the length of the longest substring in the two words.
-	 * 
-	 * @param first
-	 *            the first String.
-	 * @param second
-	 *            the second String.
-	 * @return The length of the longest common substring.
-	 */
-	private static int longestSubstr(String first, String second) {
-		int maxLen = 0;
-		int fl = first.length();
-		int sl = second.length();
-		int[][] table = new int[fl + 1][sl + 1];
-
-		for (int i = 1; i <= fl; i++) {
-			for (int j = 1; j <= sl; j++) {
-				if (first.charAt(i - 1) == second.charAt(j - 1)) {
-					table[i][j] = table[i - 1][j - 1] + 1;
-					if (table[i][j] > maxLen)
-						maxLen = table[i][j];
-				}
-			}
-		}
-		return maxLen;
+	 * @return The amount of dictionary words that can still be spelled in the
+	 *         current battle.
+	 */
+	public int getPossibleWords() {
+		return possibleWords;
 	}
 
 	/**
-	 * Finds the amount of letters in common between two Strings.
-	 * 
-	 * @param first
-	 *            the first String.
-	 * @param second
-	 *            the second String.
-	 * @return The amount of common letters between the two Strings.
+	 * Updates {@link GameGraphics#possibleWords} after the characters used
+	 * have changed.
 	 */
-	private static int commonLetters(String first, String second) {
-		int out = 0;
-		int[] lettersFirst = new int[26];
-		int[] lettersSecond = new int[26];
-
-		for (int i = 0; i < 26; i++) {
-			lettersFirst[i] = 0;
-			lettersSecond[i] = 0;
-		}
-
-		for (int i = 0; i < first.length(); i++) {
-			lettersFirst[first.charAt(i) - 65]++;
-		}
-
-		for (int i = 0; i < second.length(); i++) {
-			lettersSecond[second.charAt(i) - 65]++;
-		}
-
+	private void countPossibleWords() {
+		int[] available = new int[26];
 		for (int i = 0; i < 26; i++) {
-			out += Math.min(lettersFirst[i], lettersSecond[i]);
+			available[i] = getAvailable((char) ('A' + i));
 		}
-
-		return out;
-	}
-
-	private static HashSet<String> initDic() {
-		HashSet<String> out = new HashSet<String>();
-		Scanner in;
-
-		try {
-			in = new Scanner(new File("resources/miscellaneous/wordsEN.txt"));
-
-			while (in.hasNextLine()) {
-				String temp = in.nextLine();
-				if (temp.length() >= 3 && temp.length() <= 13)
-					out.add(temp.toUpperCase());
-			}
-
-			in.close();
-		} catch (FileNotFoundException e) {
-		}
-
-		return out;
+		possibleWords = DICTIONARY.getLetterIndex().count(available, 3, 13);
 	}
 }
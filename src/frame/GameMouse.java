@@ -4,12 +4,15 @@ import java.awt.Point;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
+import java.util.LinkedList;
 
 /**
  * The <b>GameMouse</b> class is used to provide interaction with the mouse,
  * without creating unnecessary clutter in the {@link GamePanel} class.
  * <p>
- * Changes: The class now interacts with a dragged mouse as well.
+ * Changes: The class now interacts with a dragged mouse as well, and wakes the
+ * game loop of {@link GamePanel} up after every change. Clicks are queued
+ * until the game loop handles them, so none are lost between frames.
  * <p>
  * Total Time Spent: 0.5 hour(s).
  * 
@@ -20,39 +23,52 @@ public class GameMouse implements MouseListener, MouseMotionListener {
 	/**
 	 * The current position of the <b>GameMouse</b>.
 	 */
-	public Point mousePos;
+	public volatile Point mousePos;
 
 	/**
 	 * The state of Button1 (left-click).
 	 */
-	public boolean pressed;
+	public volatile boolean pressed;
+
+	/**
+	 * The locations of the clicks that have not been read yet, oldest first.
+	 */
+	private LinkedList<Point> clicks;
+
 	/**
-	 * The location of the last click.
+	 * The {@link GamePanel panel} woken up by every change, so that it only
+	 * renders when something happens.
 	 */
-	private Point clickLoc;
+	private GamePanel panel;
 
 	/**
 	 * Initializes all the parameters of <b>GameMouse</b>.
+	 * 
+	 * @param panel
+	 *            the {@link GamePanel panel} the <b>GameMouse</b> is used on.
 	 */
-	public GameMouse() {
+	public GameMouse(GamePanel panel) {
 		mousePos = new Point(0, 0);
 		pressed = false;
-		clickLoc = null;
+		clicks = new LinkedList<Point>();
+		this.panel = panel;
 	}
 
 	@Override
 	public void mouseDragged(MouseEvent arg0) {
 		mousePos = arg0.getPoint();
+		panel.inputChanged();
 	}
 
 	@Override
 	public void mouseMoved(MouseEvent arg0) {
 		mousePos = arg0.getPoint();
+		panel.inputChanged();
 	}
 
 	@Override
 	public void mouseClicked(MouseEvent e) {
-		clickLoc = e.getPoint();
+		// Every click was already queued when the button was released.
 	}
 
 	@Override
@@ -68,30 +84,30 @@ public class GameMouse implements MouseListener, MouseMotionListener {
 	@Override
 	public void mousePressed(MouseEvent e) {
 		pressed = true;
+		panel.inputChanged();
 	}
 
 	@Override
 	public void mouseReleased(MouseEvent e) {
 		pressed = false;
-		if (clickLoc == null) {
-			clickLoc = e.getPoint();
+		synchronized (clicks) {
+			clicks.add(e.getPoint());
 		}
+		panel.inputChanged();
 	}
 
 	/**
 	 * This method allows a ditinguishment between the current position of the
 	 * mouse, and the position of a click. To ensure this, it provides a single
-	 * time access to the click, meaning that the click is set to null once it
-	 * has been read.
+	 * time access to each click, meaning that a click is removed once it has
+	 * been read.
 	 * 
-	 * @return The position of the last click, if it has not been read yet. If
-	 *         it has not happened or has been read, returns {@code null}.
+	 * @return The position of the oldest click that has not been read yet. If
+	 *         there is none, returns {@code null}.
 	 */
 	public Point getClickLoc() {
-		Point out = null;
-		if (clickLoc != null)
-			out = new Point(clickLoc);
-		clickLoc = null;
-		return out;
+		synchronized (clicks) {
+			return clicks.poll();
+		}
 	}
 }
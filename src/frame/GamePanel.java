@@ -1,12 +1,17 @@
 package frame;
 
+import java.awt.Canvas;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.Image;
 import java.awt.Point;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import java.awt.Rectangle;
+import java.awt.Toolkit;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -14,8 +19,6 @@ import java.io.PrintWriter;
 import java.util.Scanner;
 
 import javax.imageio.ImageIO;
-import javax.swing.JPanel;
-import javax.swing.Timer;
 
 import mapping.Tile;
 
@@ -27,6 +30,12 @@ import mapping.Tile;
  * has stored to provide the {@link GameGraphics game} experience to the user.
  * It also contains the {@link Button} class.
  * <p>
+ * Both tasks are done by a single game loop, on its own thread. Input is
+ * handled as soon as it arrives, the battle timer advances in fixed ticks, and
+ * whatever changed is then rendered onto a back buffer and copied to the
+ * screen. The loop sleeps while nothing changes, and during a battle it
+ * renders at a steady rate, interpolating the progress bar between ticks.
+ * <p>
  * Changes: The class now supports all aspects of combat, victory conditions,
  * and all menu screens (plus splash art).
  * <p>
@@ -37,7 +46,7 @@ import mapping.Tile;
  *
  */
 @SuppressWarnings("serial")
-public class GamePanel extends JPanel {
+public class GamePanel extends Canvas {
 	/**
 	 * <b>Button</b> is the recreation of a JButton made to fit the needs of
 	 * {@link GamePanel}. It interacts with {@link GameMouse} to do the majority
@@ -66,7 +75,7 @@ public class GamePanel extends JPanel {
 
 		/**
 		 * The position of the top-left corner relative to the top left corner
-		 * of the JPanel.
+		 * of the {@link GamePanel}.
 		 */
 		protected Point pos;
 
@@ -108,9 +117,9 @@ public class GamePanel extends JPanel {
 				g.drawImage(button[1], pos.x, pos.y, null);
 			else
 				g.drawImage(button[0], pos.x, pos.y, null);
-			g.setFont(new Font("Baskerville Old Face", Font.PLAIN, 40));
-			g.setColor(new Color(0, 0, 0));
-			g.drawString(name, pos.x + (width - g.getFontMetrics().stringWidth(name)) / 2, pos.y + height / 2 + 10);
+			Font font = TextCache.getFont("Baskerville Old Face", 40);
+			TextCache.drawString(g, name, font, Color.BLACK, pos.x + (width - TextCache.stringWidth(font, name)) / 2,
+					pos.y + height / 2 + 10);
 		}
 
 		/**
@@ -121,6 +130,13 @@ public class GamePanel extends JPanel {
 					&& (mouse.mousePos.y >= pos.y && mouse.mousePos.y <= pos.y + height) && mouse.pressed;
 		}
 
+		/**
+		 * @return The area of the screen covered by the <b>button</b>.
+		 */
+		public Rectangle getBounds() {
+			return new Rectangle(pos.x, pos.y, width + 1, height + 1);
+		}
+
 		/**
 		 * This checks if the <b>button</b> was pressed by comparing it to the
 		 * last click location.
@@ -191,6 +207,26 @@ public class GamePanel extends JPanel {
 	 */
 	private final int MAX_HELP_SCREENS = 2;
 
+	/**
+	 * The amount of times the battle timer ticks every second.
+	 */
+	private static final int TICKS_PER_SECOND = 20;
+
+	/**
+	 * The length of a tick of the battle timer, in nanoseconds.
+	 */
+	private static final long TICK_LENGTH = 1000000000L / TICKS_PER_SECOND;
+
+	/**
+	 * The shortest time between two frames, in nanoseconds.
+	 */
+	private static final long FRAME_LENGTH = 1000000000L / 60;
+
+	/**
+	 * The area covered by the progress bar of a battle.
+	 */
+	private static final Rectangle BATTLE_BAR = new Rectangle(0, 550, 800, 10);
+
 	/**
 	 * Which screen the game is currently in.
 	 * <p>
@@ -270,15 +306,68 @@ public class GamePanel extends JPanel {
 	 * Provides interaction between the panel and the mouse.
 	 */
 	private GameMouse mouse;
+
+	/**
+	 * Whether the battle timer, which restricts the length of the battle, is
+	 * running. It is the only part of the game that changes without input, so
+	 * it is the only time the game loop renders on its own.
+	 */
+	private boolean battleRunning;
+
+	/**
+	 * The amount of times the battle timer has ticked during the battle.
+	 */
+	private int battleTicks;
+
+	/**
+	 * The time of the last tick of the battle timer, as given by
+	 * {@link System#nanoTime()}.
+	 */
+	private long lastTick;
+
+	/**
+	 * How far the battle timer is between two ticks, from 0 to 1, used to draw
+	 * its progress bar smoothly.
+	 */
+	private float interpolation;
+
+	/**
+	 * The thread running the game loop, or null if it is not running.
+	 */
+	private volatile Thread loop;
+
+	/**
+	 * Guards {@link GamePanel#dirty} and {@link GamePanel#pending}, and wakes
+	 * the game loop up.
+	 */
+	private final Object lock = new Object();
+
+	/**
+	 * The area of the screen that needs to be rendered again, or null if
+	 * nothing does.
+	 */
+	private Rectangle dirty;
+
+	/**
+	 * Whether input arrived since the game loop last handled it.
+	 */
+	private boolean pending;
+
+	/**
+	 * Everything rendered, kept between frames so that only what changed is
+	 * rendered again.
+	 */
+	private VolatileImage back;
+
 	/**
-	 * Allows the screen to be refreshed every set amount of time.
+	 * The position of the mouse the last time input was handled.
 	 */
-	private Timer gameTimer;
+	private Point lastMousePos;
 
 	/**
-	 * Restricts the length of the battle.
+	 * Whether the mouse was pressed the last time input was handled.
 	 */
-	private Timer battleTimer;
+	private boolean lastPressed;
 
 	/**
 	 * A 2D array of all the buttons. The first dimension is the screen as
@@ -318,11 +407,21 @@ public class GamePanel extends JPanel {
 	private MuteButton mute;
 
 	/**
-	 * Initializes everything required for the game, and the JPanel. Refer to
+	 * The letters A to Z as drawn during a battle, or null if they have not
+	 * been drawn yet.
+	 */
+	private BufferedImage keyboard;
+
+	/**
+	 * The text of the exit screen, or null if it has not been drawn yet.
+	 */
+	private BufferedImage credits;
+
+	/**
+	 * Initializes everything required for the game, and the Canvas. Refer to
 	 * variables for more information.
 	 */
 	public GamePanel() {
-		super.setOpaque(false);
 		gameState = -1;
 
 		backgrounds = new Image[12];
@@ -407,62 +506,238 @@ public class GamePanel extends JPanel {
 
 		highScores = loadScores();
 
-		mouse = new GameMouse();
+		mouse = new GameMouse(this);
 
 		addMouseListener(mouse);
 		addMouseMotionListener(mouse);
 
-		int delay = 50; // milliseconds
-		ActionListener taskPerformer1 = new ActionListener() {
-			@Override
-			public void actionPerformed(ActionEvent evt) {
-				repaint();
-			}
-		};
-		gameTimer = new Timer(delay, taskPerformer1);
-
-		ActionListener taskPerformer2 = new ActionListener() {
-			private int repeats = 0;
-
-			@Override
-			public void actionPerformed(ActionEvent evt) {
-				if (repeats / 20 >= game.getBattleLength()) {
-					battleTimer.stop();
-					if (game.endBattle()) {
-						if (Math.random() < 0.5) {
-							game.awardItem();
-						} else {
-							game.awardKey();
-						}
-						repeats = 0;
-						gameState = 1;
-					} else {
-						repeats = 0;
-						GameMusic.endMusic();
-						GameMusic.playSound(4);
-						gameState = 8;
+		mute = new MuteButton();
+
+		lastMousePos = mouse.mousePos;
+		dirty = new Rectangle(0, 0, 800, 800);
+
+		GameMusic.playSound(0);
+	}
+
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		if (loop == null) {
+			loop = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					runLoop();
+				}
+			}, "Game loop");
+			loop.setDaemon(true);
+			loop.start();
+		}
+	}
+
+	@Override
+	public void removeNotify() {
+		Thread old = loop;
+		loop = null;
+		if (old != null)
+			old.interrupt();
+		super.removeNotify();
+	}
+
+	@Override
+	public void update(Graphics g) {
+		paint(g);
+	}
+
+	@Override
+	public void paint(Graphics g) {
+		Rectangle area = g.getClipBounds();
+		markDirty(area != null ? area : new Rectangle(0, 0, getWidth(), getHeight()));
+	}
+
+	/**
+	 * Called by {@link GameMouse} whenever the mouse changes, to wake the game
+	 * loop up.
+	 */
+	void inputChanged() {
+		synchronized (lock) {
+			pending = true;
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * Marks an area of the screen to be rendered by the game loop.
+	 * 
+	 * @param area
+	 *            the area that changed.
+	 */
+	private void markDirty(Rectangle area) {
+		synchronized (lock) {
+			if (dirty == null)
+				dirty = new Rectangle(area);
+			else
+				dirty.add(area);
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * Marks the whole screen to be rendered by the game loop.
+	 */
+	private void markAllDirty() {
+		markDirty(new Rectangle(0, 0, Math.max(getWidth(), 800), Math.max(getHeight(), 800)));
+	}
+
+	/**
+	 * The game loop. It waits until there is something to do, handles input,
+	 * advances the battle timer by however many ticks have passed, renders
+	 * what changed, and then waits for the next frame.
+	 */
+	private void runLoop() {
+		try {
+			while (loop == Thread.currentThread()) {
+				synchronized (lock) {
+					while (!pending && dirty == null && !battleRunning)
+						lock.wait();
+					pending = false;
+				}
+				long frameStart = System.nanoTime();
+
+				handleInput();
+
+				if (battleRunning) {
+					while (battleRunning && frameStart - lastTick >= TICK_LENGTH) {
+						tick();
+						lastTick += TICK_LENGTH;
 					}
-				} else {
-					Graphics g = getGraphics();
-					g.setColor(new Color(255, 0, 0));
-					g.fillRect(0, 550, (int) (800.0 / (game.getBattleLength() * 20) * repeats), 10);
+					interpolation = Math.min(1f, (float) (frameStart - lastTick) / TICK_LENGTH);
+					markDirty(BATTLE_BAR);
 				}
 
-				repeats++;
+				render();
+
+				long rest = FRAME_LENGTH - (System.nanoTime() - frameStart);
+				if (rest > 0)
+					Thread.sleep(rest / 1000000, (int) (rest % 1000000));
 			}
-		};
-		mute = new MuteButton();
+		} catch (InterruptedException e) {
+			// The panel was removed, so the loop ends.
+		}
+	}
 
-		battleTimer = new Timer(50, taskPerformer2);
+	/**
+	 * Handles everything the mouse did since the last frame: clicks are
+	 * processed, and the {@link Button buttons} and descriptions the mouse
+	 * moved on or off of are marked to be rendered again.
+	 */
+	private void handleInput() {
+		Point pos = mouse.mousePos;
+		boolean pressed = mouse.pressed;
+
+		if (gameState >= 0) {
+			for (Button b : buttons[gameState]) {
+				boolean was = lastPressed && b.buttonAnalysis(lastMousePos);
+				if (was != (pressed && b.buttonAnalysis(pos)))
+					markDirty(b.getBounds());
+			}
+			Rectangle before = getDescriptionBounds(lastMousePos);
+			Rectangle after = getDescriptionBounds(pos);
+			if (before != null && !pos.equals(lastMousePos))
+				markDirty(before);
+			if (after != null && !pos.equals(lastMousePos))
+				markDirty(after);
+		}
+		lastMousePos = pos;
+		lastPressed = pressed;
 
-		gameTimer.start();
+		Point click;
+		while ((click = mouse.getClickLoc()) != null) {
+			analyzeClick(click);
+			markAllDirty();
+		}
+	}
 
-		GameMusic.playSound(0);
+	/**
+	 * Advances the battle timer by one tick, ending the battle once it runs
+	 * out.
+	 */
+	private void tick() {
+		if (battleTicks / TICKS_PER_SECOND >= game.getBattleLength()) {
+			battleRunning = false;
+			if (game.endBattle()) {
+				if (Math.random() < 0.5) {
+					game.awardItem();
+				} else {
+					game.awardKey();
+				}
+				battleTicks = 0;
+				gameState = 1;
+			} else {
+				battleTicks = 0;
+				GameMusic.endMusic();
+				GameMusic.playSound(4);
+				gameState = 8;
+			}
+			markAllDirty();
+		}
+
+		battleTicks++;
 	}
 
-	@Override
-	public void paintComponent(Graphics g) {
-		analyzeClick();
+	/**
+	 * Starts the battle timer. It is started once the battle has been set up,
+	 * so that the time spent choosing the word is not caught up on as ticks.
+	 */
+	private void startBattleTimer() {
+		battleRunning = true;
+		lastTick = System.nanoTime();
+		interpolation = 0;
+	}
+
+	/**
+	 * Renders the area that changed onto {@link GamePanel#back}, and copies it
+	 * to the screen. Everything is rendered if the back buffer was lost.
+	 */
+	private void render() {
+		Rectangle area;
+		synchronized (lock) {
+			area = dirty;
+			dirty = null;
+		}
+		GraphicsConfiguration config = getGraphicsConfiguration();
+		if (area == null || config == null || getWidth() <= 0 || getHeight() <= 0)
+			return;
+
+		do {
+			int status = (back == null ? VolatileImage.IMAGE_INCOMPATIBLE : back.validate(config));
+			if (status == VolatileImage.IMAGE_INCOMPATIBLE)
+				back = createVolatileImage(getWidth(), getHeight());
+			if (status != VolatileImage.IMAGE_OK)
+				area = new Rectangle(0, 0, getWidth(), getHeight());
+
+			Graphics2D g = back.createGraphics();
+			g.setClip(area);
+			draw(g);
+			g.dispose();
+
+			Graphics screen = getGraphics();
+			if (screen != null) {
+				screen.drawImage(back, area.x, area.y, area.x + area.width, area.y + area.height, area.x, area.y,
+						area.x + area.width, area.y + area.height, null);
+				screen.dispose();
+			}
+		} while (back.contentsLost());
+		Toolkit.getDefaultToolkit().sync();
+	}
+
+	/**
+	 * Draws the current screen.
+	 * 
+	 * @param g
+	 *            the {@link java.awt.Graphics Graphics} being drawn on, clipped
+	 *            to the area that needs rendering.
+	 */
+	private void draw(Graphics g) {
 		switch (gameState) {
 		case -1:
 			renderSplashScreen(g);
@@ -482,6 +757,7 @@ public class GamePanel extends JPanel {
 		case 1:
 			try {
 				renderMap(g);
+				renderDescription(g);
 			} catch (NullPointerException npe) {
 				npe.printStackTrace();
 				System.exit(0);
@@ -525,7 +801,48 @@ public class GamePanel extends JPanel {
 		renderItems(g);
 		renderInventory(g);
 		renderSmallInventory(g);
-		g.drawImage(game.getMap(), this.getWidth() - Tile.TILE_SIZE * 11, 0, null);
+		if (g.hitClip(this.getWidth() - Tile.TILE_SIZE * 11, 0, Tile.TILE_SIZE * 11, Tile.TILE_SIZE * 11))
+			game.drawMap(g, this.getWidth() - Tile.TILE_SIZE * 11, 0);
+	}
+
+	/**
+	 * Renders the description of whatever is under the mouse in the
+	 * inventories, if anything.
+	 * 
+	 * @param g
+	 *            the {@link java.awt.Graphics Graphics} of the container that
+	 *            needs rendering.
+	 */
+	private void renderDescription(Graphics g) {
+		Rectangle bounds = getDescriptionBounds(mouse.mousePos);
+		if (bounds == null || !g.hitClip(bounds.x, bounds.y, bounds.width, bounds.height))
+			return;
+		if (bounds.width == 250) {
+			int pos = 11 * ((mouse.mousePos.y - 550) / 125) + (mouse.mousePos.x - 250) / 50;
+			g.drawImage(game.getItemDescription(pos), bounds.x, bounds.y, null);
+		} else {
+			int pos = 3 * ((mouse.mousePos.y - 245) / 40) + (mouse.mousePos.x - 125) / 40;
+			g.drawImage(game.getGemDescription(pos), bounds.x, bounds.y, null);
+		}
+	}
+
+	/**
+	 * Finds where the description of whatever is under the mouse in the
+	 * inventories is drawn.
+	 * 
+	 * @param mousePos
+	 *            the position of the mouse.
+	 * @return The area covered by the description, or null if there is none.
+	 */
+	private Rectangle getDescriptionBounds(Point mousePos) {
+		if (gameState != 1)
+			return null;
+		if (mousePos.x >= 250 && mousePos.x <= 800
+				&& ((mousePos.y >= 550 && mousePos.y <= 650) || (mousePos.y >= 700 && mousePos.y <= 800)))
+			return new Rectangle(mousePos.x - 250, mousePos.y - 100, 250, 100);
+		if (mousePos.x >= 125 && mousePos.x <= 245 && mousePos.y >= 245 && mousePos.y <= 365)
+			return new Rectangle(mousePos.x - 40, mousePos.y - 40, 30, 30);
+		return null;
 	}
 
 	/**
@@ -537,6 +854,8 @@ public class GamePanel extends JPanel {
 	 *            needs rendering.
 	 */
 	private void renderInventory(Graphics g) {
+		if (!g.hitClip(250, 550, 550, 250))
+			return;
 		g.drawImage(backgrounds[6], 250, 550, null);
 		g.drawImage(game.getItemInventory(), 250, 550, null);
 	}
@@ -550,10 +869,14 @@ public class GamePanel extends JPanel {
 	 *            needs rendering.
 	 */
 	private void renderSmallInventory(Graphics g) {
-		g.drawImage(backgrounds[8], 125, 245, null);
-		g.drawImage(backgrounds[8], 125, 390, null);
-		g.drawImage(game.getGemInventory(), 125, 245, null);
-		g.drawImage(game.getSpellInventory(), 125, 390, null);
+		if (g.hitClip(125, 245, 120, 120)) {
+			g.drawImage(backgrounds[8], 125, 245, null);
+			g.drawImage(game.getGemInventory(), 125, 245, null);
+		}
+		if (g.hitClip(125, 390, 120, 120)) {
+			g.drawImage(backgrounds[8], 125, 390, null);
+			g.drawImage(game.getSpellInventory(), 125, 390, null);
+		}
 	}
 
 	/**
@@ -568,8 +891,13 @@ public class GamePanel extends JPanel {
 		renderItems(g);
 		renderLetters(g);
 		renderSmallInventory(g);
-		g.drawImage(backgrounds[level], this.getWidth() - Tile.TILE_SIZE * 11, 0, null);
-		g.drawImage(game.getEnemy(), 250, 0, null);
+		if (g.hitClip(250, 0, 550, 550)) {
+			g.drawImage(backgrounds[level], this.getWidth() - Tile.TILE_SIZE * 11, 0, null);
+			g.drawImage(game.getEnemy(), 250, 0, null);
+		}
+		g.setColor(new Color(255, 0, 0));
+		g.fillRect(0, 550, (int) (800.0 / (game.getBattleLength() * TICKS_PER_SECOND) * (battleTicks + interpolation)),
+				10);
 	}
 
 	/**
@@ -581,19 +909,34 @@ public class GamePanel extends JPanel {
 	 */
 	private void renderLetters(Graphics g) {
 		g.drawImage(backgrounds[5], 0, 550, null);
-		g.setFont(new Font("Algerian", Font.PLAIN, 40));
-		g.setColor(new Color(0, 0, 0));
-		for (int i = 0; i < 26; i++) {
-			g.drawString(String.valueOf((char) (i + 'A')), i % 13 * 60 + 25, i / 13 * 60 + 550 + 175);
+		if (!g.hitClip(0, 560, 800, 240))
+			return;
+		Font font = TextCache.getFont("Algerian", 40);
+		if (keyboard == null) {
+			keyboard = new BufferedImage(800, 250, BufferedImage.TYPE_INT_ARGB);
+			Graphics k = keyboard.getGraphics();
+			for (int i = 0; i < 26; i++) {
+				TextCache.drawString(k, String.valueOf((char) (i + 'A')), font, Color.BLACK, i % 13 * 60 + 25,
+						i / 13 * 60 + 175);
+			}
+			k.dispose();
 		}
+		g.drawImage(keyboard, 0, 550, null);
+
 		String curWord = game.getCurWord();
+		Color colour = Color.BLACK;
+		if (game.isCurWordValid())
+			colour = new Color(0, 120, 0);
+		else if (!game.isCurWordPrefix())
+			colour = new Color(150, 0, 0);
 		for (int i = 0; i < curWord.length(); i++) {
-			g.drawString(curWord.substring(i, i + 1), (13 - curWord.length()) / 2 * 60 + 25 + i * 60, 550 + 60);
+			TextCache.drawString(g, curWord.substring(i, i + 1), font, colour,
+					(13 - curWord.length()) / 2 * 60 + 25 + i * 60, 550 + 60);
 		}
-		g.setFont(new Font("Algerian", Font.PLAIN, 12));
+		font = TextCache.getFont("Algerian", 12);
 		for (int i = 0; i < 26; i++) {
-			g.drawString(String.valueOf(game.getAvailable((char) (i + 'A'))), i % 13 * 60 + 54,
-					i / 13 * 60 + 550 + 141);
+			TextCache.drawString(g, String.valueOf(game.getAvailable((char) (i + 'A'))), font, Color.BLACK,
+					i % 13 * 60 + 54, i / 13 * 60 + 550 + 141);
 		}
 	}
 
@@ -623,14 +966,16 @@ public class GamePanel extends JPanel {
 			g.fillRect(0, 550, 250, 250);
 			g.setColor(new Color(70, 70, 70));
 			g.fillRect(250, 550, 550, 250);
-			g.setColor(new Color(255, 255, 255));
-			g.setFont(new Font("Times New Roman", Font.PLAIN, 18));
-			g.drawString("You fool! By bringing back the letters you have unleashed my powers!", 260, 600);
-			g.drawString("Try putting the message together! Yes, it says \"Laughter By Word\"!", 260, 625);
-			g.drawString("But let me give you the secret, missing letter, \"S\".", 260, 650);
-			g.drawString("The message becomes \"Slaughter by Sword\"!", 260, 675);
-			g.drawString("This whole quest was a bad pun!", 260, 700);
-			g.drawString("Get Slaughtered by my Sword!", 260, 725);
+			Font font = TextCache.getFont("Times New Roman", 18);
+			TextCache.drawString(g, "You fool! By bringing back the letters you have unleashed my powers!", font,
+					Color.WHITE, 260, 600);
+			TextCache.drawString(g, "Try putting the message together! Yes, it says \"Laughter By Word\"!", font,
+					Color.WHITE, 260, 625);
+			TextCache.drawString(g, "But let me give you the secret, missing letter, \"S\".", font, Color.WHITE, 260,
+					650);
+			TextCache.drawString(g, "The message becomes \"Slaughter by Sword\"!", font, Color.WHITE, 260, 675);
+			TextCache.drawString(g, "This whole quest was a bad pun!", font, Color.WHITE, 260, 700);
+			TextCache.drawString(g, "Get Slaughtered by my Sword!", font, Color.WHITE, 260, 725);
 			g.drawImage(characters[1], 0, 550, null);
 			gameState = 10;
 		} else {
@@ -638,9 +983,7 @@ public class GamePanel extends JPanel {
 			g.fillRect(0, 550, 250, 250);
 			g.setColor(new Color(70, 70, 70));
 			g.fillRect(250, 550, 550, 250);
-			g.setColor(new Color(255, 255, 255));
-			g.setFont(new Font("Times New Roman", Font.PLAIN, 20));
-			g.drawString(message, 260, 600);
+			TextCache.drawString(g, message, TextCache.getFont("Times New Roman", 20), Color.WHITE, 260, 600);
 			g.drawImage(characters[messageCharacter], 0, 550, null);
 		}
 	}
@@ -651,8 +994,10 @@ public class GamePanel extends JPanel {
 	 */
 	private void renderLoadScreen() {
 		Graphics g = this.getGraphics();
-		g.drawImage(backgrounds[7], 0, 0, null);
-		repaint();
+		if (g != null) {
+			g.drawImage(backgrounds[7], 0, 0, null);
+			g.dispose();
+		}
 	}
 
 	/**
@@ -686,7 +1031,8 @@ public class GamePanel extends JPanel {
 	 */
 	private void renderItems(Graphics g) {
 		g.drawImage(backgrounds[4], 0, 0, null);
-		g.drawImage(game.getItemSetImage(), 0, 0, null);
+		if (g.hitClip(0, 0, 250, 550))
+			g.drawImage(game.getItemSetImage(), 0, 0, null);
 	}
 
 	/**
@@ -722,11 +1068,9 @@ public class GamePanel extends JPanel {
 	 */
 	private void renderHighScores(Graphics g) {
 		g.drawImage(backgrounds[0], 0, 0, null);
-		g.setFont(new Font("Castellar", Font.PLAIN, 40));
-		g.setColor(new Color(255, 255, 255));
+		Font font = TextCache.getFont("Castellar", 40);
 		for (int i = 0; i < 10; i++) {
-			g.drawString((i + 1) + ". " + highScores[i],
-					(800 - g.getFontMetrics().stringWidth((i + 1) + ". " + highScores[i])) / 2, 110 + 50 * i);
+			TextCache.drawCentred(g, (i + 1) + ". " + highScores[i], font, Color.WHITE, 800, 110 + 50 * i);
 		}
 	}
 
@@ -739,8 +1083,22 @@ public class GamePanel extends JPanel {
 	 */
 	private void renderExit(Graphics g) {
 		g.drawImage(backgrounds[0], 0, 0, null);
+		if (credits == null)
+			credits = drawCredits();
+		g.drawImage(credits, 0, 0, null);
+	}
+
+	/**
+	 * Draws the text of the exit screen, which never changes.
+	 * 
+	 * @return An {@link java.awt.Image image} of the text, on a transparent
+	 *         background.
+	 */
+	private BufferedImage drawCredits() {
+		BufferedImage out = new BufferedImage(800, 800, BufferedImage.TYPE_INT_ARGB);
+		Graphics g = out.getGraphics();
 		g.setColor(Color.WHITE);
-		g.setFont(new Font("Calibri", Font.PLAIN, 20));
+		g.setFont(TextCache.getFont("Calibri", 20));
 		g.drawString("Thanks to the following sources for insipiration with visuals, audio, and gameplay: ", 10, 150);
 		g.drawString("https://retrogamecrunch.com/journal/62/the-art-of-shuten-complete ", 10, 170);
 		g.drawString("https://opengameart.org/content/pixel-characters-tiles-ai", 10, 190);
@@ -752,7 +1110,7 @@ public class GamePanel extends JPanel {
 		g.drawString("https://www.gamedevmarket.net/asset/pixel-forest-parallax-bg-6982/", 10, 310);
 		g.drawString("http://polytopia.wikia.com/wiki/The_Battle_of_Polytopia_Wikia", 10, 330);
 		g.drawString("http://www-01.sil.org/linguistics/wordlists/english/wordlist/wordsEn.txt", 10, 350);
-		g.setFont(new Font("Calibri", Font.PLAIN, 30));
+		g.setFont(TextCache.getFont("Calibri", 30));
 		g.drawString("Thanks to the following people who helped with testing: ", 10, 480);
 		g.drawString("Agelina Lam", 10, 520);
 		g.drawString("Ruven Raizman", 10, 560);
@@ -761,31 +1119,18 @@ public class GamePanel extends JPanel {
 		g.drawString("Created by: Daniel Zybine & Lev Raizman", 10, 720);
 		g.drawString("Click anywhere on the screen to exit...",
 				(800 - g.getFontMetrics().stringWidth("Click anywhere on the screen to exit...")) / 2, 770);
+		g.dispose();
+		return out;
 	}
 
 	/**
-	 * This method is called before every rendering of the screen. It processes
-	 * any changes that need to screens based on mouse input.
-	 */
-	private void analyzeClick() {
-		Point temp = mouse.getClickLoc();
-		if (temp == null) {
-			if (gameState == 1) {
-				if (mouse.mousePos.x >= 250 && mouse.mousePos.x <= 800
-						&& ((mouse.mousePos.y >= 550 && mouse.mousePos.y <= 650)
-								|| (mouse.mousePos.y >= 700 && mouse.mousePos.y <= 800))) {
-					int pos = 11 * ((mouse.mousePos.y - 550) / 125) + (mouse.mousePos.x - 250) / 50;
-					this.getGraphics().drawImage(game.getItemDescription(pos), mouse.mousePos.x - 250,
-							mouse.mousePos.y - 100, null);
-				} else if (mouse.mousePos.x >= 125 && mouse.mousePos.x <= 245 && mouse.mousePos.y >= 245
-						&& mouse.mousePos.y <= 365) {
-					int pos = 3 * ((mouse.mousePos.y - 245) / 40) + (mouse.mousePos.x - 125) / 40;
-					this.getGraphics().drawImage(game.getGemDescription(pos), mouse.mousePos.x - 40,
-							mouse.mousePos.y - 40, null);
-				}
-			}
-			return;
-		}
+	 * This method is called by the game loop for every click. It processes any
+	 * changes that need to screens based on mouse input.
+	 * 
+	 * @param temp
+	 *            the position of the click.
+	 */
+	private void analyzeClick(Point temp) {
 		switch (gameState) {
 		case -1:
 			gameState = 0;
@@ -855,12 +1200,12 @@ public class GamePanel extends JPanel {
 
 			if (message != null)
 				if (message.equals("")) {
-					battleTimer.start();
 					game.initiateBattle();
+					startBattleTimer();
 					gameState = 6;
 				} else if (message.equals("I have encountered a monster unlike any I've seen before!")) {
-					battleTimer.start();
 					game.initiateBossBattle();
+					startBattleTimer();
 					gameState = 7;
 				} else if (message.contains("BRING")) {
 					gameState = 9;
@@ -910,7 +1255,7 @@ public class GamePanel extends JPanel {
 			break;
 		}
 		if (!(gameState == 6 || gameState == 7)) {
-			battleTimer.stop();
+			battleRunning = false;
 		}
 		mute.buttonAnalysis(temp);
 	}
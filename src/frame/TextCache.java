@@ -0,0 +1,246 @@
+package frame;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <b>TextCache</b> provides all the text drawn by {@link GamePanel} and
+ * {@link GameGraphics}. Every {@link java.awt.Font Font} is only created once,
+ * every string is only measured once, and every string is only rendered once
+ * for each {@link java.awt.Font Font} and {@link java.awt.Color color}, after
+ * which drawing it is a single blit.
+ * <p>
+ * Text is rendered exactly as {@link java.awt.Graphics#drawString(String, int, int)
+ * Graphics.drawString()} would, onto an {@link java.awt.Image image} just large
+ * enough for its pixels, so it can replace it anywhere.
+ *
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ */
+public class TextCache {
+	/**
+	 * <b>Label</b> is a string rendered once, along with where it is placed
+	 * relative to the start of its baseline.
+	 *
+	 * @author Lev Raizman
+	 * @version 2.0.0.0
+	 *
+	 */
+	private static class Label {
+		/**
+		 * The rendered string, or null if it has no visible pixels.
+		 */
+		private BufferedImage image;
+
+		/**
+		 * The x-coordinate of the top left corner of
+		 * {@link Label#image}, relative to the start of the baseline.
+		 */
+		private int x;
+
+		/**
+		 * The y-coordinate of the top left corner of
+		 * {@link Label#image}, relative to the start of the baseline.
+		 */
+		private int y;
+	}
+
+	/**
+	 * The amount of {@link Label labels} and widths kept.
+	 */
+	private static final int CACHE_SIZE = 512;
+
+	/**
+	 * Every {@link java.awt.Font Font} created, by name and size.
+	 */
+	private static final HashMap<String, Font> fonts = new HashMap<String, Font>();
+
+	/**
+	 * The {@link java.awt.FontMetrics FontMetrics} of every
+	 * {@link java.awt.Font Font} used.
+	 */
+	private static final HashMap<Font, FontMetrics> metrics = new HashMap<Font, FontMetrics>();
+
+	/**
+	 * The most recently used widths of strings, by {@link java.awt.Font Font}
+	 * and string.
+	 */
+	private static final LinkedHashMap<String, Integer> widths = createCache();
+
+	/**
+	 * The most recently used {@link Label labels}, by {@link java.awt.Font
+	 * Font}, {@link java.awt.Color color} and string.
+	 */
+	private static final LinkedHashMap<String, Label> labels = createCache();
+
+	/**
+	 * Measures text the same way as the {@link java.awt.Image images} and
+	 * screen the game draws on.
+	 */
+	private static final Graphics2D measurer = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB)
+			.createGraphics();
+
+	/**
+	 * Creates a map that only keeps its {@link TextCache#CACHE_SIZE} most
+	 * recently used entries.
+	 *
+	 * @return The new map.
+	 */
+	@SuppressWarnings("serial")
+	private static <V> LinkedHashMap<String, V> createCache() {
+		return new LinkedHashMap<String, V>(CACHE_SIZE * 2, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+				return size() > CACHE_SIZE;
+			}
+		};
+	}
+
+	/**
+	 * Provides a plain {@link java.awt.Font Font}, creating it the first time
+	 * it is needed.
+	 *
+	 * @param name
+	 *            the name of the {@link java.awt.Font Font}.
+	 * @param size
+	 *            the point size of the {@link java.awt.Font Font}.
+	 * @return The shared {@link java.awt.Font Font}.
+	 */
+	public static synchronized Font getFont(String name, int size) {
+		String key = name + "-" + size;
+		Font out = fonts.get(key);
+		if (out == null) {
+			out = new Font(name, Font.PLAIN, size);
+			fonts.put(key, out);
+		}
+		return out;
+	}
+
+	/**
+	 * Measures the width of a string, as
+	 * {@link java.awt.FontMetrics#stringWidth(String)
+	 * FontMetrics.stringWidth()} would.
+	 *
+	 * @param font
+	 *            the {@link java.awt.Font Font} the string is drawn in.
+	 * @param text
+	 *            the string being measured.
+	 * @return The advance width of the string, in pixels.
+	 */
+	public static synchronized int stringWidth(Font font, String text) {
+		String key = font.getName() + "-" + font.getSize() + "|" + text;
+		Integer out = widths.get(key);
+		if (out == null) {
+			out = getMetrics(font).stringWidth(text);
+			widths.put(key, out);
+		}
+		return out;
+	}
+
+	/**
+	 * Draws a string, as {@link java.awt.Graphics#drawString(String, int, int)
+	 * Graphics.drawString()} would.
+	 *
+	 * @param g
+	 *            the {@link java.awt.Graphics Graphics} being drawn on.
+	 * @param text
+	 *            the string being drawn.
+	 * @param font
+	 *            the {@link java.awt.Font Font} of the string.
+	 * @param colour
+	 *            the {@link java.awt.Color color} of the string.
+	 * @param x
+	 *            the x-coordinate of the start of the baseline.
+	 * @param y
+	 *            the y-coordinate of the baseline.
+	 */
+	public static void drawString(Graphics g, String text, Font font, Color colour, int x, int y) {
+		Label label = getLabel(text, font, colour);
+		if (label.image != null)
+			g.drawImage(label.image, x + label.x, y + label.y, null);
+	}
+
+	/**
+	 * Draws a string centred horizontally in an area starting at the left
+	 * edge of g.
+	 *
+	 * @param g
+	 *            the {@link java.awt.Graphics Graphics} being drawn on.
+	 * @param text
+	 *            the string being drawn.
+	 * @param font
+	 *            the {@link java.awt.Font Font} of the string.
+	 * @param colour
+	 *            the {@link java.awt.Color color} of the string.
+	 * @param width
+	 *            the width of the area the string is centred in.
+	 * @param y
+	 *            the y-coordinate of the baseline.
+	 */
+	public static void drawCentred(Graphics g, String text, Font font, Color colour, int width, int y) {
+		drawString(g, text, font, colour, (width - stringWidth(font, text)) / 2, y);
+	}
+
+	/**
+	 * Provides a {@link Label}, rendering it the first time it is needed.
+	 *
+	 * @param text
+	 *            the string of the {@link Label}.
+	 * @param font
+	 *            the {@link java.awt.Font Font} of the string.
+	 * @param colour
+	 *            the {@link java.awt.Color color} of the string.
+	 * @return The shared {@link Label}.
+	 */
+	private static synchronized Label getLabel(String text, Font font, Color colour) {
+		String key = font.getName() + "-" + font.getSize() + "#" + Integer.toHexString(colour.getRGB()) + "|" + text;
+		Label out = labels.get(key);
+		if (out != null)
+			return out;
+
+		out = new Label();
+		Rectangle bounds = font.createGlyphVector(measurer.getFontRenderContext(), text).getPixelBounds(null, 0,
+				0);
+		if (text.length() > 0 && !bounds.isEmpty()) {
+			// A margin keeps any pixel missed by the bounds from being cut off.
+			bounds.grow(2, 2);
+			out.x = bounds.x;
+			out.y = bounds.y;
+			out.image = new BufferedImage(bounds.width, bounds.height, BufferedImage.TYPE_INT_ARGB);
+			Graphics g = out.image.getGraphics();
+			g.setFont(font);
+			g.setColor(colour);
+			g.drawString(text, -bounds.x, -bounds.y);
+			g.dispose();
+		}
+		labels.put(key, out);
+		return out;
+	}
+
+	/**
+	 * Provides the {@link java.awt.FontMetrics FontMetrics} of a
+	 * {@link java.awt.Font Font}, creating them the first time they are
+	 * needed.
+	 *
+	 * @param font
+	 *            the {@link java.awt.Font Font} being measured.
+	 * @return The {@link java.awt.FontMetrics FontMetrics} of font.
+	 */
+	private static FontMetrics getMetrics(Font font) {
+		FontMetrics out = metrics.get(font);
+		if (out == null) {
+			out = measurer.getFontMetrics(font);
+			metrics.put(font, out);
+		}
+		return out;
+	}
+}
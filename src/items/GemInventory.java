@@ -23,6 +23,20 @@ import java.util.ArrayList;
  *
  */
 public class GemInventory {
+	/**
+	 * The width and height of the {@link java.awt.Image image} of a
+	 * {@link GemInventory.Gem Gem}.
+	 */
+	private static final int ICON_SIZE = 40;
+
+	/**
+	 * The only four {@link java.awt.Image images} a {@link GemInventory.Gem
+	 * Gem} can have, all drawn once onto a single atlas: positive and negative
+	 * shield {@link GemInventory.Gem gems}, followed by positive and negative
+	 * weapon {@link GemInventory.Gem gems}.
+	 */
+	private static final Image[] ICONS = drawIcons();
+
 	/**
 	 * <b>Gem</b> is the class used to represent a singular <b>Gem</b>.
 	 * 
@@ -73,33 +87,18 @@ public class GemInventory {
 		}
 
 		/**
-		 * Creates an {@link java.awt.Image image} of the <b>Gem</b> and returns
-		 * it.
+		 * Provides an {@link java.awt.Image image} of the <b>Gem</b>.
 		 * <p>
 		 * The <b>Gem</b> is green if it has a positive value, red if negative.
 		 * The <b>Gem</b> is a square if it supports a weapon, a circle if it
 		 * supports a shield.
 		 * 
-		 * @return An {@link java.awt.Image image} of the current <b>Gem</b>.
+		 * @return An {@link java.awt.Image image} of the current <b>Gem</b>,
+		 *         taken from {@link GemInventory#ICONS}. It is shared, so it
+		 *         must not be drawn on.
 		 */
 		public Image drawGem() {
-			Image out = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
-			for (int i = 0; i < out.getWidth(null); i++)
-				for (int j = 0; j < out.getHeight(null); j++)
-					((BufferedImage) out).setRGB(i, j, new Color(0, 0, 0, 0).getRGB());
-
-			Graphics g = out.getGraphics();
-			if (value < 0)
-				g.setColor(new Color(255, 0, 0));
-			else
-				g.setColor(new Color(0, 255, 0));
-
-			if (weapon)
-				g.fillRect(10, 10, 20, 20);
-			else
-				g.fillOval(10, 10, 20, 20);
-
-			return out;
+			return ICONS[(value < 0 ? 1 : 0) + (weapon ? 2 : 0)];
 		}
 	}
 
@@ -108,6 +107,11 @@ public class GemInventory {
 	 */
 	ArrayList<Gem> gems;
 
+	/**
+	 * The amount of times the <b>GemInventory</b> has changed.
+	 */
+	private int version;
+
 	/**
 	 * Creates an empty <b>GemInventory</b>
 	 */
@@ -124,6 +128,7 @@ public class GemInventory {
 	 *            the {@link items.GemInventory.Gem gem} to be added.
 	 */
 	public void addGem(Gem m) {
+		version++;
 		if (gems.size() < 9) {
 			gems.add(m);
 		} else {
@@ -140,6 +145,7 @@ public class GemInventory {
 	 * @return The used {@link items.GemInventory.Gem gem}.
 	 */
 	public Gem useGem(int pos) {
+		version++;
 		return gems.remove(pos);
 	}
 
@@ -150,4 +156,40 @@ public class GemInventory {
 	public ArrayList<Gem> getGems() {
 		return gems;
 	}
+
+	/**
+	 * @return The amount of times the <b>GemInventory</b> has changed.
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Draws the four {@link java.awt.Image images} of a
+	 * {@link GemInventory.Gem Gem} side by side onto one atlas, and provides
+	 * each of them as a part of it.
+	 * 
+	 * @return The {@link java.awt.Image images}, in the order of
+	 *         {@link GemInventory#ICONS}.
+	 */
+	private static Image[] drawIcons() {
+		BufferedImage atlas = new BufferedImage(ICON_SIZE * 4, ICON_SIZE, BufferedImage.TYPE_INT_ARGB);
+		Graphics g = atlas.getGraphics();
+		Image[] out = new Image[4];
+		for (int i = 0; i < 4; i++) {
+			if (i % 2 == 1)
+				g.setColor(new Color(255, 0, 0));
+			else
+				g.setColor(new Color(0, 255, 0));
+
+			if (i >= 2)
+				g.fillRect(ICON_SIZE * i + 10, 10, 20, 20);
+			else
+				g.fillOval(ICON_SIZE * i + 10, 10, 20, 20);
+
+			out[i] = atlas.getSubimage(ICON_SIZE * i, 0, ICON_SIZE, ICON_SIZE);
+		}
+		g.dispose();
+		return out;
+	}
 }
@@ -41,6 +41,11 @@ public class ItemInventory {
 	 */
 	private int[] letters;
 
+	/**
+	 * The amount of times the <b>ItemInventory</b> has changed.
+	 */
+	private int version;
+
 	/**
 	 * Creates an empty <b>ItemInventory</b>.
 	 */
@@ -60,6 +65,7 @@ public class ItemInventory {
 	 *            the {@link Item} being added.
 	 */
 	public void addItem(Item m) {
+		version++;
 		if (m.getName().equals("Key")) {
 			keys++;
 			return;
@@ -83,6 +89,7 @@ public class ItemInventory {
 	public void addLetter(char letter) {
 		letters[letters[13]] = letter;
 		letters[13]++;
+		version++;
 	}
 
 	/**
@@ -110,6 +117,7 @@ public class ItemInventory {
 		Item out = items.remove(pos);
 		if (newItem != null)
 			items.add(newItem);
+		version++;
 		return out;
 	}
 
@@ -138,7 +146,11 @@ public class ItemInventory {
 	 * @return Whether there previously was a key.
 	 */
 	public boolean getKey() {
-		return (keys > 0 ? --keys >= 0 : false);
+		if (keys == 0)
+			return false;
+		keys--;
+		version++;
+		return true;
 	}
 
 	/**
@@ -161,4 +173,11 @@ public class ItemInventory {
 	public ArrayList<Item> getItems() {
 		return items;
 	}
+
+	/**
+	 * @return The amount of times the <b>ItemInventory</b> has changed.
+	 */
+	public int getVersion() {
+		return version;
+	}
 }
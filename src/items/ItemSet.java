@@ -28,6 +28,11 @@ public class ItemSet {
 	 */
 	private int[] charsAvail;
 
+	/**
+	 * The amount of times the <b>ItemSet</b> has changed.
+	 */
+	private int version;
+
 	/**
 	 * Creates an empty set of {@link Item Items}, following the two character
 	 * rule of an <b>ItemSet</b>.
@@ -62,6 +67,7 @@ public class ItemSet {
 				charsAvail[i] -= items[0].getCharAvail(i);
 			}
 		items[0] = newValue;
+		version++;
 		if (items[0] != null)
 			for (int i = 0; i < 26; i++) {
 				charsAvail[i] += items[0].getCharAvail(i);
@@ -98,6 +104,7 @@ public class ItemSet {
 				charsAvail[i] -= items[1].getCharAvail(i);
 			}
 		items[1] = newValue;
+		version++;
 		if (items[1] != null)
 			for (int i = 0; i < 26; i++) {
 				charsAvail[i] += items[1].getCharAvail(i);
@@ -157,4 +164,11 @@ public class ItemSet {
 	public int getCharAvail(char which) {
 		return charsAvail[String.valueOf(which).toUpperCase().charAt(0) - 'A'];
 	}
+
+	/**
+	 * @return The amount of times the <b>ItemSet</b> has changed.
+	 */
+	public int getVersion() {
+		return version;
+	}
 }
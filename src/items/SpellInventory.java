@@ -1,11 +1,14 @@
 package items;
 
 import java.awt.Color;
+import java.awt.Graphics;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 
 import javax.imageio.ImageIO;
 
@@ -27,13 +30,24 @@ public class SpellInventory {
 	/**
 	 * The base {@link java.awt.Image image} of a Spell.
 	 */
-	private static Image spellImage = initImage();
+	private static BufferedImage spellImage = initImage();
+
+	/**
+	 * The {@link java.awt.Image image} of every spell in use, by the ARGB value
+	 * of its {@link java.awt.Color color}.
+	 */
+	private static final HashMap<Integer, BufferedImage> icons = new HashMap<Integer, BufferedImage>();
 
 	/**
 	 * The {@link java.awt.Color colors} for the spells.
 	 */
 	ArrayList<Color> spells;
 
+	/**
+	 * The amount of times the <b>SpellInventory</b> has changed.
+	 */
+	private int version;
+
 	/**
 	 * Initializes an empty <b>SpellInventory</b>.
 	 */
@@ -48,6 +62,7 @@ public class SpellInventory {
 	 *            the spell to be added.
 	 */
 	public void addSpell(Color m) {
+		version++;
 		if (spells.size() < 9) {
 			spells.add(m);
 		} else {
@@ -63,7 +78,14 @@ public class SpellInventory {
 	 * @return The spell at pos.
 	 */
 	public Color useSpell(int pos) {
-		return spells.remove(pos);
+		version++;
+		Color out = spells.remove(pos);
+		if (!spells.contains(out)) {
+			synchronized (icons) {
+				icons.remove(out.getRGB());
+			}
+		}
+		return out;
 	}
 
 	/**
@@ -85,41 +107,78 @@ public class SpellInventory {
 		Color temp = spells.get(pos);
 		spells.set(pos, spells.get(8));
 		spells.set(8, temp);
+		version++;
 	}
 
 	/**
 	 * Returns an {@link java.awt.Image image} of the spell, an alteration of
 	 * {@link SpellInventory#spellImage} to the {@link java.awt.Color color} of
-	 * the spell.
+	 * the spell. Each {@link java.awt.Color color} is only drawn once, until
+	 * the spell is used.
 	 * 
 	 * @param spellCol
 	 *            the {@link java.awt.Color color} of the spell being used.
-	 * @return An altered version of {@link SpellInventory#spellImage}.
+	 * @return An altered version of {@link SpellInventory#spellImage}. It is
+	 *         shared, so it must not be drawn on.
 	 */
 	public static Image drawSpell(Color spellCol) {
-		Image out = spellImage;
-
-		for (int i = 0; i < out.getWidth(null); i++) {
-			for (int j = 0; j < out.getHeight(null); j++) {
-				int pixel = ((BufferedImage) out).getRGB(i, j);
-				if ((pixel >> 24) != 0x00)
-					((BufferedImage) out).setRGB(i, j, spellCol.getRGB());
+		if (spellImage == null)
+			return null;
+		int argb = spellCol.getRGB();
+		synchronized (icons) {
+			BufferedImage out = icons.get(argb);
+			if (out == null) {
+				out = tint(argb);
+				icons.put(argb, out);
 			}
+			return out;
 		}
+	}
+
+	/**
+	 * Colours every visible pixel of {@link SpellInventory#spellImage}.
+	 * 
+	 * @param argb
+	 *            the ARGB value of the {@link java.awt.Color color} of the
+	 *            spell.
+	 * @return A new {@link java.awt.Image image} of the spell.
+	 */
+	private static BufferedImage tint(int argb) {
+		int width = spellImage.getWidth();
+		int height = spellImage.getHeight();
+		int[] base = ((DataBufferInt) spellImage.getRaster().getDataBuffer()).getData();
+		int[] pixels = new int[base.length];
+		for (int i = 0; i < base.length; i++)
+			pixels[i] = (base[i] >>> 24 != 0 ? argb : 0);
 
+		BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		out.getRaster().setDataElements(0, 0, width, height, pixels);
 		return out;
 	}
 
 	/**
 	 * Initializes the regular spell image.
 	 * 
-	 * @return The base {@link java.awt.Image image} associated with a spell.
+	 * @return The base {@link java.awt.Image image} associated with a spell,
+	 *         as one int per pixel.
 	 */
-	private static Image initImage() {
+	private static BufferedImage initImage() {
 		try {
-			return ImageIO.read(new File("resources/graphics/misc/spell.png"));
+			BufferedImage read = ImageIO.read(new File("resources/graphics/misc/spell.png"));
+			BufferedImage out = new BufferedImage(read.getWidth(), read.getHeight(), BufferedImage.TYPE_INT_ARGB);
+			Graphics g = out.getGraphics();
+			g.drawImage(read, 0, 0, null);
+			g.dispose();
+			return out;
 		} catch (IOException e) {
 			return null;
 		}
 	}
+
+	/**
+	 * @return The amount of times the <b>SpellInventory</b> has changed.
+	 */
+	public int getVersion() {
+		return version;
+	}
 }
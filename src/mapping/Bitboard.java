@@ -0,0 +1,340 @@
+package mapping;
+
+import java.awt.Point;
+
+/**
+ * A <b>Bitboard</b> is a set of positions on a {@link TileMap}, stored as one
+ * bit for each {@link Tile} in two longs. The {@link Tile} at (x, y) is bit
+ * y * {@link TileMap#SIZE} + x, counting the bits of the first long before
+ * those of the second.
+ * <p>
+ * A <b>Bitboard</b> cannot be changed, and every operation on it provides a
+ * new one. Operations on whole sets, such as finding every {@link Tile}
+ * next to a set or everything that can be reached from it, are done with a
+ * few bit operations for the whole {@link TileMap} at once, rather than one
+ * {@link Tile} at a time.
+ *
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ * @see TileMap
+ *
+ */
+public final class Bitboard {
+	/**
+	 * The amount of {@link Tile tiles} on a {@link TileMap}.
+	 */
+	public static final int CELLS = TileMap.SIZE * TileMap.SIZE;
+
+	/**
+	 * The bits of the second long that are on the {@link TileMap}.
+	 */
+	private static final long HIGH_MASK = (1L << (CELLS - 64)) - 1;
+
+	/**
+	 * A <b>Bitboard</b> without any {@link Tile tiles}.
+	 */
+	public static final Bitboard EMPTY = new Bitboard(0, 0);
+
+	/**
+	 * A <b>Bitboard</b> of every {@link Tile} on a {@link TileMap}.
+	 */
+	public static final Bitboard FULL = new Bitboard(-1L, HIGH_MASK);
+
+	/**
+	 * The {@link Tile tiles} with x = 0.
+	 */
+	private static final Bitboard LEFT_COLUMN = column(0);
+
+	/**
+	 * The {@link Tile tiles} with x = {@link TileMap#SIZE} - 1.
+	 */
+	private static final Bitboard RIGHT_COLUMN = column(TileMap.SIZE - 1);
+
+	/**
+	 * The {@link Tile tiles} from (0, 0) to (8, 5).
+	 */
+	private final long low;
+
+	/**
+	 * The {@link Tile tiles} from (9, 5) to (10, 10).
+	 */
+	private final long high;
+
+	/**
+	 * Creates a <b>Bitboard</b> from its bits. Bits past the end of the
+	 * {@link TileMap} are ignored.
+	 *
+	 * @param low
+	 *            the first 64 bits.
+	 * @param high
+	 *            the remaining bits.
+	 */
+	public Bitboard(long low, long high) {
+		this.low = low;
+		this.high = high & HIGH_MASK;
+	}
+
+	/**
+	 * Creates a <b>Bitboard</b> of a single {@link Tile}.
+	 *
+	 * @param x
+	 *            x-coordinate of the {@link Tile}.
+	 * @param y
+	 *            y-coordinate of the {@link Tile}.
+	 * @return A <b>Bitboard</b> holding only (x, y).
+	 */
+	public static Bitboard of(int x, int y) {
+		return EMPTY.with(x, y, true);
+	}
+
+	/**
+	 * Creates a <b>Bitboard</b> of a column of {@link Tile tiles}.
+	 *
+	 * @param x
+	 *            x-coordinate of the column.
+	 * @return A <b>Bitboard</b> holding every {@link Tile} with that
+	 *         x-coordinate.
+	 */
+	private static Bitboard column(int x) {
+		Bitboard out = EMPTY;
+		for (int y = 0; y < TileMap.SIZE; y++) {
+			out = out.with(x, y, true);
+		}
+		return out;
+	}
+
+	/**
+	 * @return The first 64 bits.
+	 */
+	public long getLow() {
+		return low;
+	}
+
+	/**
+	 * @return The remaining bits.
+	 */
+	public long getHigh() {
+		return high;
+	}
+
+	/**
+	 * @param x
+	 *            x-coordinate of a {@link Tile}.
+	 * @param y
+	 *            y-coordinate of a {@link Tile}.
+	 * @return Whether the <b>Bitboard</b> holds (x, y). Positions off the
+	 *         {@link TileMap} are never held.
+	 */
+	public boolean get(int x, int y) {
+		if (x < 0 || x >= TileMap.SIZE || y < 0 || y >= TileMap.SIZE)
+			return false;
+		int cell = y * TileMap.SIZE + x;
+		return cell < 64 ? (low >>> cell & 1) != 0 : (high >>> (cell - 64) & 1) != 0;
+	}
+
+	/**
+	 * @param point
+	 *            an (x,y) coordinate on a {@link TileMap}.
+	 * @return Whether the <b>Bitboard</b> holds (point.x, point.y).
+	 */
+	public boolean get(Point point) {
+		return get(point.x, point.y);
+	}
+
+	/**
+	 * Adds or removes a {@link Tile}.
+	 *
+	 * @param x
+	 *            x-coordinate of the {@link Tile}.
+	 * @param y
+	 *            y-coordinate of the {@link Tile}.
+	 * @param value
+	 *            whether the {@link Tile} is held.
+	 * @return This <b>Bitboard</b>, with (x, y) added or removed.
+	 */
+	public Bitboard with(int x, int y, boolean value) {
+		if (x < 0 || x >= TileMap.SIZE || y < 0 || y >= TileMap.SIZE)
+			throw new IndexOutOfBoundsException("No tile at (" + x + ", " + y + ")");
+		int cell = y * TileMap.SIZE + x;
+		long lowBit = cell < 64 ? 1L << cell : 0;
+		long highBit = cell < 64 ? 0 : 1L << (cell - 64);
+		if (value)
+			return new Bitboard(low | lowBit, high | highBit);
+		return new Bitboard(low & ~lowBit, high & ~highBit);
+	}
+
+	/**
+	 * @param other
+	 *            another <b>Bitboard</b>.
+	 * @return The {@link Tile tiles} held by both <b>Bitboards</b>.
+	 */
+	public Bitboard and(Bitboard other) {
+		return new Bitboard(low & other.low, high & other.high);
+	}
+
+	/**
+	 * @param other
+	 *            another <b>Bitboard</b>.
+	 * @return The {@link Tile tiles} held by either <b>Bitboard</b>.
+	 */
+	public Bitboard or(Bitboard other) {
+		return new Bitboard(low | other.low, high | other.high);
+	}
+
+	/**
+	 * @param other
+	 *            another <b>Bitboard</b>.
+	 * @return The {@link Tile tiles} held by this <b>Bitboard</b> but not by
+	 *         other.
+	 */
+	public Bitboard andNot(Bitboard other) {
+		return new Bitboard(low & ~other.low, high & ~other.high);
+	}
+
+	/**
+	 * @return The {@link Tile tiles} not held by this <b>Bitboard</b>.
+	 */
+	public Bitboard not() {
+		return new Bitboard(~low, ~high);
+	}
+
+	/**
+	 * @return Whether the <b>Bitboard</b> holds no {@link Tile tiles}.
+	 */
+	public boolean isEmpty() {
+		return low == 0 && high == 0;
+	}
+
+	/**
+	 * @return The amount of {@link Tile tiles} held.
+	 */
+	public int count() {
+		return Long.bitCount(low) + Long.bitCount(high);
+	}
+
+	/**
+	 * Moves every {@link Tile} one step in a direction. {@link Tile Tiles}
+	 * moved off the {@link TileMap} are dropped.
+	 *
+	 * @param dir
+	 *            a point to represent the direction of movement, with dir.x
+	 *            being the change in x, and dir.y being the change in y. Only
+	 *            one of them may be non-zero.
+	 * @return The {@link Tile tiles} one step from this <b>Bitboard</b> in
+	 *         that direction.
+	 */
+	public Bitboard shift(Point dir) {
+		if (dir.x == 1)
+			return andNot(RIGHT_COLUMN).shiftUp(1);
+		if (dir.x == -1)
+			return andNot(LEFT_COLUMN).shiftDown(1);
+		if (dir.y == 1)
+			return shiftUp(TileMap.SIZE);
+		if (dir.y == -1)
+			return shiftDown(TileMap.SIZE);
+		return this;
+	}
+
+	/**
+	 * @return The {@link Tile tiles} held, along with every {@link Tile} next
+	 *         to one of them.
+	 */
+	public Bitboard expand() {
+		return or(andNot(RIGHT_COLUMN).shiftUp(1)).or(andNot(LEFT_COLUMN).shiftDown(1)).or(shiftUp(TileMap.SIZE))
+				.or(shiftDown(TileMap.SIZE));
+	}
+
+	/**
+	 * Finds everything that can be reached from the {@link Tile tiles} held,
+	 * moving one step up, down, left or right at a time.
+	 *
+	 * @param within
+	 *            the {@link Tile tiles} that can be moved through.
+	 * @return Every {@link Tile} of within that can be reached from the
+	 *         {@link Tile tiles} of this <b>Bitboard</b> that are in within.
+	 */
+	public Bitboard flood(Bitboard within) {
+		Bitboard out = and(within);
+		while (true) {
+			Bitboard next = out.expand().and(within);
+			if (next.equals(out))
+				return out;
+			out = next;
+		}
+	}
+
+	/**
+	 * Finds the length of the shortest path from the {@link Tile tiles} held
+	 * to any of a set of {@link Tile tiles}.
+	 *
+	 * @param targets
+	 *            the {@link Tile tiles} being walked to.
+	 * @param within
+	 *            the {@link Tile tiles} that can be moved through, which
+	 *            should include the targets.
+	 * @return The amount of steps needed, or -1 if no target can be reached.
+	 */
+	public int distance(Bitboard targets, Bitboard within) {
+		Bitboard reached = and(within);
+		for (int steps = 0; !reached.isEmpty(); steps++) {
+			if (!reached.and(targets).isEmpty())
+				return steps;
+			Bitboard next = reached.expand().and(within);
+			if (next.equals(reached))
+				return -1;
+			reached = next;
+		}
+		return -1;
+	}
+
+	/**
+	 * Moves every bit towards the end of the <b>Bitboard</b>.
+	 *
+	 * @param bits
+	 *            how far the bits are moved, from 1 to 63.
+	 * @return The moved bits.
+	 */
+	private Bitboard shiftUp(int bits) {
+		return new Bitboard(low << bits, high << bits | low >>> (64 - bits));
+	}
+
+	/**
+	 * Moves every bit towards the start of the <b>Bitboard</b>.
+	 *
+	 * @param bits
+	 *            how far the bits are moved, from 1 to 63.
+	 * @return The moved bits.
+	 */
+	private Bitboard shiftDown(int bits) {
+		return new Bitboard(low >>> bits | high << (64 - bits), high >>> bits);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof Bitboard))
+			return false;
+		return low == ((Bitboard) other).low && high == ((Bitboard) other).high;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (low ^ low >>> 32 ^ high ^ high >>> 32);
+	}
+
+	/**
+	 * @return The <b>Bitboard</b> as a grid of {@link TileMap#SIZE} lines, with
+	 *         '#' for every {@link Tile} held and '.' for the rest.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder out = new StringBuilder();
+		for (int y = 0; y < TileMap.SIZE; y++) {
+			for (int x = 0; x < TileMap.SIZE; x++) {
+				out.append(get(x, y) ? '#' : '.');
+			}
+			out.append('\n');
+		}
+		return out.toString();
+	}
+}
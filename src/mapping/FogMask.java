@@ -0,0 +1,152 @@
+package mapping;
+
+import java.awt.Graphics;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.awt.image.WritableRaster;
+import java.util.HashMap;
+
+/**
+ * A <b>FogMask</b> darkens everything on a {@link TileMap} that is further
+ * from the {@link characters.MainCharacter player} than the radius of their
+ * vision, as done on the dark maps of level 3.
+ * <p>
+ * Each <b>FogMask</b> is an {@link java.awt.Image image} almost twice the size
+ * of a {@link TileMap}, with the lit square in its middle. It is computed once
+ * for each radius, and every frame only the part of it that lines up with the
+ * {@link TileMap} around the {@link characters.MainCharacter player} is drawn,
+ * in a single call, whatever the position. A soft <b>FogMask</b> fades the edge
+ * of the lit square into the darkness, and is still drawn in a single call.
+ *
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ * @see TileMap
+ *
+ */
+public class FogMask {
+	/**
+	 * Every <b>FogMask</b> computed, by radius and softness.
+	 */
+	private static final HashMap<String, FogMask> masks = new HashMap<String, FogMask>();
+
+	/**
+	 * How far the edge of a soft <b>FogMask</b> fades, in pixels.
+	 */
+	private static final int FEATHER = Tile.TILE_SIZE / 2;
+
+	/**
+	 * The palette of a hard <b>FogMask</b>: black, and transparent.
+	 */
+	private static final IndexColorModel HARD = new IndexColorModel(8, 2, new byte[2], new byte[2], new byte[2], 1);
+
+	/**
+	 * The index of black in {@link FogMask#HARD}.
+	 */
+	private static final int DARK = 0;
+
+	/**
+	 * The index of transparency in {@link FogMask#HARD}.
+	 */
+	private static final int LIT = 1;
+
+	/**
+	 * The width and height of every <b>FogMask</b>, in pixels.
+	 */
+	private static final int EXTENT = (TileMap.SIZE * 2 - 1) * Tile.TILE_SIZE;
+
+	/**
+	 * The darkness, with the lit square centred on the {@link Tile} at
+	 * (TileMap.SIZE - 1, TileMap.SIZE - 1).
+	 */
+	private final BufferedImage image;
+
+	/**
+	 * Computes a <b>FogMask</b>.
+	 *
+	 * @param radius
+	 *            how many {@link Tile tiles} can be seen in every direction
+	 *            around the {@link characters.MainCharacter player}.
+	 * @param soft
+	 *            whether the edge of the lit square fades into the darkness.
+	 */
+	private FogMask(int radius, boolean soft) {
+		int from = (TileMap.SIZE - 1 - radius) * Tile.TILE_SIZE;
+		int to = (TileMap.SIZE + radius) * Tile.TILE_SIZE;
+
+		if (!soft) {
+			// Indexed with a transparent entry, so the lit square is skipped
+			// rather than blended when drawn.
+			image = new BufferedImage(EXTENT, EXTENT, BufferedImage.TYPE_BYTE_INDEXED, HARD);
+			WritableRaster raster = image.getRaster();
+			int[] row = new int[EXTENT];
+			for (int y = 0; y < EXTENT; y++) {
+				for (int x = 0; x < EXTENT; x++)
+					row[x] = (x < from || x >= to || y < from || y >= to ? DARK : LIT);
+				raster.setSamples(0, y, EXTENT, 1, 0, row);
+			}
+			return;
+		}
+
+		image = new BufferedImage(EXTENT, EXTENT, BufferedImage.TYPE_INT_ARGB);
+		int[] row = new int[EXTENT];
+		for (int y = 0; y < EXTENT; y++) {
+			int dy = Math.max(0, Math.max(from + FEATHER - y, y - (to - 1 - FEATHER)));
+			for (int x = 0; x < EXTENT; x++) {
+				int alpha = 255;
+				if (x >= from && x < to && y >= from && y < to) {
+					int dx = Math.max(0, Math.max(from + FEATHER - x, x - (to - 1 - FEATHER)));
+					alpha = (int) Math.min(255, 255 * Math.sqrt(dx * dx + dy * dy) / FEATHER);
+				}
+				row[x] = alpha << 24;
+			}
+			image.setRGB(0, y, EXTENT, 1, row, 0, EXTENT);
+		}
+	}
+
+	/**
+	 * Provides the <b>FogMask</b> of a radius of vision, computing it the
+	 * first time it is needed.
+	 *
+	 * @param radius
+	 *            the radius of vision, as provided by
+	 *            {@link items.ItemInventory#increaseInVision()
+	 *            ItemInventory.increaseInVision()}.
+	 * @param soft
+	 *            whether the edge of the lit square fades into the darkness.
+	 * @return The shared <b>FogMask</b>.
+	 */
+	public static synchronized FogMask get(int radius, boolean soft) {
+		String key = radius + (soft ? "s" : "h");
+		FogMask out = masks.get(key);
+		if (out == null) {
+			out = new FogMask(radius, soft);
+			masks.put(key, out);
+		}
+		return out;
+	}
+
+	/**
+	 * Darkens a {@link TileMap} drawn on g around a position.
+	 *
+	 * @param g
+	 *            the {@link java.awt.Graphics Graphics} the {@link TileMap}
+	 *            was drawn on.
+	 * @param x
+	 *            the x-coordinate of the top left corner of the
+	 *            {@link TileMap}.
+	 * @param y
+	 *            the y-coordinate of the top left corner of the
+	 *            {@link TileMap}.
+	 * @param centre
+	 *            the {@link Tile} the {@link characters.MainCharacter player}
+	 *            is standing on.
+	 */
+	public void draw(Graphics g, int x, int y, Point centre) {
+		int size = TileMap.SIZE * Tile.TILE_SIZE;
+		int sx = (TileMap.SIZE - 1 - centre.x) * Tile.TILE_SIZE;
+		int sy = (TileMap.SIZE - 1 - centre.y) * Tile.TILE_SIZE;
+		g.drawImage(image, x, y, x + size, y + size, sx, sy, sx + size, sy + size, null);
+	}
+}
@@ -0,0 +1,186 @@
+package mapping;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * A <b>MapCache</b> provides the {@link TileMap maps} of the game by id,
+ * loading each one the first time it is needed instead of all of them at the
+ * start of the game.
+ * <p>
+ * Only the most recently used {@link TileMap maps} are kept, up to a fixed
+ * amount. A {@link TileMap} that was changed by the
+ * {@link characters.MainCharacter player} is never dropped, since loading it
+ * again would undo the changes. {@link TileMap Maps} that are likely to be
+ * needed soon can be loaded on a background thread with
+ * {@link MapCache#prefetch(Collection)}.
+ * <p>
+ * The letters and statue parts of every {@link TileMap} are numbered from
+ * fixed positions given by the {@link WorldPack}, so a {@link TileMap} is the
+ * same whenever, and however many times, it is loaded.
+ *
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ * @see TileMap
+ *
+ */
+public class MapCache {
+	/**
+	 * The {@link WorldPack} the {@link TileMap maps} are loaded from.
+	 */
+	private WorldPack world;
+
+	/**
+	 * The amount of unchanged {@link TileMap maps} kept.
+	 */
+	private int capacity;
+
+	/**
+	 * The unchanged {@link TileMap maps} kept, from least to most recently
+	 * used.
+	 */
+	private LinkedHashMap<Integer, TileMap> loaded;
+
+	/**
+	 * The changed {@link TileMap maps}, which are kept until the game ends.
+	 */
+	private HashMap<Integer, TileMap> modified;
+
+	/**
+	 * The ids of the {@link TileMap maps} waiting to be loaded in the
+	 * background.
+	 */
+	private LinkedList<Integer> queue;
+
+	/**
+	 * The thread loading {@link MapCache#queue}, or null if it is empty.
+	 */
+	private Thread prefetcher;
+
+	/**
+	 * Creates a <b>MapCache</b>. No {@link TileMap} is loaded until it is
+	 * needed.
+	 *
+	 * @param world
+	 *            the {@link WorldPack} the {@link TileMap maps} are loaded
+	 *            from.
+	 * @param capacity
+	 *            the amount of unchanged {@link TileMap maps} kept.
+	 */
+	public MapCache(WorldPack world, int capacity) {
+		this.world = world;
+		this.capacity = capacity;
+		loaded = new LinkedHashMap<Integer, TileMap>(capacity * 2, 0.75f, true);
+		modified = new HashMap<Integer, TileMap>();
+		queue = new LinkedList<Integer>();
+		prefetcher = null;
+	}
+
+	/**
+	 * Provides a {@link TileMap}, loading it if it is not kept.
+	 *
+	 * @param id
+	 *            the id of the {@link TileMap} in the {@link WorldPack}.
+	 * @return The {@link TileMap}, or null if there is none with that id.
+	 */
+	public TileMap get(int id) {
+		TileMap out;
+		synchronized (this) {
+			out = find(id);
+			if (out != null || id < 0 || id >= world.size())
+				return out;
+		}
+
+		// Loaded without holding the lock, so that a map being prefetched
+		// never holds up one that is needed now.
+		out = new TileMap(world, id);
+
+		synchronized (this) {
+			TileMap other = find(id);
+			if (other != null)
+				return other;
+			loaded.put(id, out);
+			trim();
+		}
+		return out;
+	}
+
+	/**
+	 * Loads {@link TileMap maps} on a background thread, if they are not kept
+	 * already.
+	 *
+	 * @param ids
+	 *            the ids of the {@link TileMap maps}. Ids without a
+	 *            {@link TileMap}, such as {@link WorldPack#NONE}, are ignored.
+	 */
+	public synchronized void prefetch(Collection<Integer> ids) {
+		for (Integer id : ids) {
+			if (id >= 0 && id < world.size() && find(id) == null && !queue.contains(id))
+				queue.add(id);
+		}
+		if (prefetcher != null || queue.isEmpty())
+			return;
+
+		prefetcher = new Thread(new Runnable() {
+			public void run() {
+				while (true) {
+					int id;
+					synchronized (MapCache.this) {
+						if (queue.isEmpty()) {
+							prefetcher = null;
+							return;
+						}
+						id = queue.removeFirst();
+					}
+					get(id);
+				}
+			}
+		}, "Map loader");
+		prefetcher.setDaemon(true);
+		prefetcher.start();
+	}
+
+	/**
+	 * @param id
+	 *            the id of a {@link TileMap}.
+	 * @return Whether the {@link TileMap} is kept, so that
+	 *         {@link MapCache#get(int)} does not need to load it.
+	 */
+	public synchronized boolean isLoaded(int id) {
+		return modified.containsKey(id) || loaded.containsKey(id);
+	}
+
+	/**
+	 * Finds a kept {@link TileMap}, marking it as the most recently used.
+	 *
+	 * @param id
+	 *            the id of the {@link TileMap}.
+	 * @return The {@link TileMap}, or null if it is not kept.
+	 */
+	private TileMap find(int id) {
+		TileMap out = modified.get(id);
+		if (out == null)
+			out = loaded.get(id);
+		return out;
+	}
+
+	/**
+	 * Drops the least recently used {@link TileMap maps} until at most
+	 * {@link MapCache#capacity} are kept. A changed {@link TileMap} is moved to
+	 * {@link MapCache#modified} instead of being dropped.
+	 */
+	private void trim() {
+		Iterator<Map.Entry<Integer, TileMap>> it = loaded.entrySet().iterator();
+		while (loaded.size() > capacity && it.hasNext()) {
+			Map.Entry<Integer, TileMap> eldest = it.next();
+			if (eldest.getValue().isModified())
+				modified.put(eldest.getKey(), eldest.getValue());
+			it.remove();
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package mapping;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * A <b>TileCompositor</b> renders a rectangular region of a {@link TileMap}
+ * onto a surface provided by the caller, in a single pass: the region is
+ * cleared once, and every {@link Tile} is then drawn straight to its place.
+ * Nothing is allocated while rendering, so the same surface can be reused to
+ * render any amount of {@link TileMap maps}.
+ * <p>
+ * {@link Tile Tiles} can be drawn smaller or larger than
+ * {@link Tile#TILE_SIZE}, which allows the same <b>TileCompositor</b> to
+ * render the {@link TileMap map} itself, as well as minimaps and previews.
+ *
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ * @see TileMap
+ *
+ */
+public class TileCompositor {
+	/**
+	 * The width of a {@link Tile} once rendered.
+	 */
+	private int tileSize;
+
+	/**
+	 * The colour drawn underneath the {@link Tile tiles}.
+	 */
+	private Color background;
+
+	/**
+	 * Creates a <b>TileCompositor</b>.
+	 *
+	 * @param tileSize
+	 *            the width of a {@link Tile} once rendered.
+	 * @param background
+	 *            the colour drawn underneath the {@link Tile tiles}.
+	 */
+	public TileCompositor(int tileSize, Color background) {
+		this.tileSize = tileSize;
+		this.background = background;
+	}
+
+	/**
+	 * @return The width of a {@link Tile} once rendered.
+	 */
+	public int getTileSize() {
+		return tileSize;
+	}
+
+	/**
+	 * Creates a surface large enough for a region of {@link Tile tiles}.
+	 *
+	 * @param columns
+	 *            the width of the region, in {@link Tile tiles}.
+	 * @param rows
+	 *            the height of the region, in {@link Tile tiles}.
+	 * @return A new, empty surface.
+	 */
+	public BufferedImage createSurface(int columns, int rows) {
+		return new BufferedImage(columns * tileSize, rows * tileSize, BufferedImage.TYPE_INT_ARGB);
+	}
+
+	/**
+	 * Renders all of a {@link TileMap} onto surface, from its top left corner.
+	 *
+	 * @param map
+	 *            the {@link TileMap} being rendered.
+	 * @param surface
+	 *            the surface being drawn on.
+	 */
+	public void render(TileMap map, BufferedImage surface) {
+		Graphics2D g = surface.createGraphics();
+		render(map, 0, 0, TileMap.SIZE, TileMap.SIZE, g, 0, 0);
+		g.dispose();
+	}
+
+	/**
+	 * Renders a rectangular region of a {@link TileMap}.
+	 *
+	 * @param map
+	 *            the {@link TileMap} being rendered.
+	 * @param column
+	 *            the x-coordinate of the first {@link Tile} of the region.
+	 * @param row
+	 *            the y-coordinate of the first {@link Tile} of the region.
+	 * @param columns
+	 *            the width of the region, in {@link Tile tiles}.
+	 * @param rows
+	 *            the height of the region, in {@link Tile tiles}.
+	 * @param g
+	 *            the {@link java.awt.Graphics Graphics} of the surface being
+	 *            drawn on.
+	 * @param x
+	 *            the x-coordinate on the surface of the top left corner of the
+	 *            region.
+	 * @param y
+	 *            the y-coordinate on the surface of the top left corner of the
+	 *            region.
+	 */
+	public void render(TileMap map, int column, int row, int columns, int rows, Graphics2D g, int x, int y) {
+		if (background != null) {
+			g.setColor(background);
+			g.fillRect(x, y, columns * tileSize, rows * tileSize);
+		}
+		if (tileSize != Tile.TILE_SIZE)
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+
+		for (int i = 0; i < columns; i++) {
+			for (int j = 0; j < rows; j++) {
+				Image tile = map.drawTile(column + i, row + j);
+				if (tileSize == Tile.TILE_SIZE)
+					g.drawImage(tile, x + i * tileSize, y + j * tileSize, null);
+				else
+					g.drawImage(tile, x + i * tileSize, y + j * tileSize, tileSize, tileSize, null);
+			}
+		}
+	}
+}
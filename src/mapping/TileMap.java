@@ -5,15 +5,23 @@ import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.Point;
 import java.awt.image.BufferedImage;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.util.Scanner;
+import java.util.BitSet;
+
+import items.Item;
 
 /**
  * Stores a map as 2-dimensional field of {@link Tile tiles}. The class
  * processes the drawing of the combination of {@link Tile tiles}. It also
  * provides access to the {@link Tile tiles}.
  * <p>
+ * Only the character of each {@link Tile} is kept, in a single array, along
+ * with a short table of the letter and statue part numbers. Everything else
+ * about a {@link Tile} is found through its {@link TileType}, so a
+ * <b>TileMap</b> costs a few hundred bytes. The passable, blocking, door and
+ * event {@link Tile tiles} are also kept as {@link Bitboard bitboards}, so
+ * that collisions are a single bit test, and reachability a few bit
+ * operations.
+ * <p>
  * Changes: The class now supports the emptying of {@link Tile tiles} and the
  * unlocking of doors.
  * <p>
@@ -25,46 +33,156 @@ import java.util.Scanner;
  */
 public class TileMap {
 	/**
-	 * The <b>TileMap</b>, represented as a grid of {@link Tile Tiles}.
+	 * The width and height of every <b>TileMap</b>, in {@link Tile tiles}.
+	 */
+	public static final int SIZE = 11;
+
+	/**
+	 * Renders every <b>TileMap</b> at its full size.
+	 */
+	private static final TileCompositor COMPOSITOR = new TileCompositor(Tile.TILE_SIZE, Color.WHITE);
+
+	/**
+	 * The level of the <b>TileMap</b>, as defined in
+	 * {@link frame.GameGraphics#getLevel() GameGraphics.getLevel()}.
+	 */
+	private int level;
+
+	/**
+	 * The character of every {@link Tile} as found in the .map file, row by
+	 * row, so that the {@link Tile} at (x, y) is at y * {@link TileMap#SIZE}
+	 * + x.
+	 */
+	private byte[] types;
+
+	/**
+	 * The characters of the {@link Tile tiles} that are doors, whether open,
+	 * locked or secret.
+	 */
+	private static final String DOORS = "dcs";
+
+	/**
+	 * The characters of the {@link Tile tiles} that do something when the
+	 * {@link characters.MainCharacter player} walks into them: letters,
+	 * special items, bosses, statues and locked doors.
+	 */
+	private static final String EVENTS = "liBXc";
+
+	/**
+	 * The {@link Tile tiles} that can contain the
+	 * {@link characters.MainCharacter player}.
+	 */
+	private Bitboard passable;
+
+	/**
+	 * The {@link Tile tiles} that cannot contain the
+	 * {@link characters.MainCharacter player}.
+	 */
+	private Bitboard blocking;
+
+	/**
+	 * The {@link Tile tiles} that are doors, whether open, locked or secret.
+	 */
+	private Bitboard doors;
+
+	/**
+	 * The {@link Tile tiles} that do something when the
+	 * {@link characters.MainCharacter player} walks into them.
+	 */
+	private Bitboard events;
+
+	/**
+	 * The positions in {@link TileMap#types} of the letters and statues of
+	 * the <b>TileMap</b>.
+	 */
+	private short[] numbered;
+
+	/**
+	 * The letter or statue part number of each {@link Tile} in
+	 * {@link TileMap#numbered}.
+	 */
+	private short[] numbers;
+
+	/**
+	 * The rendered <b>TileMap</b>, kept between frames, or null if it has not
+	 * been rendered yet.
 	 */
-	private Tile[][] myMap;
+	private BufferedImage surface;
 
 	/**
-	 * Creates a <b>TileMap</b> by accessing the .map file associated with the
-	 * name.
+	 * Marks the {@link Tile tiles} that changed since
+	 * {@link TileMap#surface} was last rendered, in the same order as
+	 * {@link TileMap#types}.
+	 */
+	private BitSet dirty;
+
+	/**
+	 * Whether any {@link Tile} was changed since the <b>TileMap</b> was
+	 * created.
+	 */
+	private volatile boolean modified;
+
+	/**
+	 * Creates a <b>TileMap</b> from the {@link WorldPack#getWorld() world} of
+	 * the game.
 	 * 
 	 * @param mapName
 	 *            the name of the <b>TileMap</b> to be created.
 	 */
 	public TileMap(String mapName) {
-		Scanner in;
-		int level;
-
-		if (Integer.parseInt(mapName.substring(1)) >= 11) {
-			level = 2;
-		} else if ("opqrstu".contains(mapName.substring(0, 1))) {
-			level = 3;
-		} else {
-			level = 1;
+		this(WorldPack.getWorld(), WorldPack.getWorld().getId(mapName));
+	}
+
+	/**
+	 * Creates a <b>TileMap</b> from a {@link WorldPack}. Its letters and statue
+	 * parts are numbered from the positions given by the {@link WorldPack}, so
+	 * that the same <b>TileMap</b> is created however many times it is loaded.
+	 * 
+	 * @param world
+	 *            the {@link WorldPack} containing the <b>TileMap</b>.
+	 * @param id
+	 *            the id of the <b>TileMap</b> to be created in the
+	 *            {@link WorldPack}.
+	 */
+	public TileMap(WorldPack world, int id) {
+		if (id < 0 || id >= world.size()) {
+			System.out.println("map exception in tilemap: " + id);
+			return;
+		}
+		level = world.getLevel(id);
+		int letterNum = world.getFirstLetter(id);
+		int statueNum = world.getFirstStatue(id);
+
+		types = new byte[SIZE * SIZE];
+		passable = Bitboard.EMPTY;
+		blocking = Bitboard.EMPTY;
+		doors = Bitboard.EMPTY;
+		events = Bitboard.EMPTY;
+		dirty = new BitSet(SIZE * SIZE);
+		int count = 0;
+		for (int cell = 0; cell < types.length; cell++) {
+			char type = world.getTile(id, cell % SIZE, cell / SIZE);
+			types[cell] = (byte) type;
+			classify(cell % SIZE, cell / SIZE, type);
+			if (type == 'l' || type == 'X')
+				count++;
 		}
 
-		try {
-			in = new Scanner(new FileReader("resources/maps/" + mapName + ".map"));
-			myMap = new Tile[11][11];
-			for (int y = 0; y < 11; y++) {
-				String temp = in.nextLine();
-				for (int x = 0; x < 11; x++) {
-					myMap[x][y] = new Tile(temp.charAt(x), level);
-				}
+		numbered = new short[count];
+		numbers = new short[count];
+		count = 0;
+		for (int cell = 0; cell < types.length; cell++) {
+			if (types[cell] == 'l' || types[cell] == 'X') {
+				numbered[count] = (short) cell;
+				numbers[count++] = (short) (types[cell] == 'l' ? letterNum++ : statueNum++);
 			}
-			in.close();
-		} catch (FileNotFoundException fnfe) {
-			System.out.println("file excpetion in tilemap: " + mapName);
 		}
 	}
 
 	/**
-	 * Provides access to a {@link Tile} on the <b>TileMap</b>.
+	 * Provides access to a {@link Tile} on the <b>TileMap</b>. The
+	 * <b>TileMap</b> does not keep {@link Tile tiles}, so a new one is created
+	 * every time.
 	 * 
 	 * @param posX
 	 *            x-coordinate of the {@link Tile}
@@ -73,7 +191,8 @@ public class TileMap {
 	 * @return The {@link Tile} at (posX, posY).
 	 */
 	public Tile getTile(int posX, int posY) {
-		return myMap[posX][posY];
+		int cell = cell(posX, posY);
+		return new Tile((char) types[cell], level, getNumber(cell));
 	}
 
 	/**
@@ -87,18 +206,140 @@ public class TileMap {
 		return getTile(point.x, point.y);
 	}
 
+	/**
+	 * @param point
+	 *            an (x,y) coordinate on the <b>TileMap</b>.
+	 * @return The {@link TileType type} of the {@link Tile} at (point.x,
+	 *         point.y).
+	 */
+	public TileType getType(Point point) {
+		return TileType.get((char) types[cell(point.x, point.y)], level);
+	}
+
+	/**
+	 * @param point
+	 *            an (x,y) coordinate on the <b>TileMap</b>.
+	 * @return The passability of the {@link Tile} at (point.x, point.y).
+	 */
+	public boolean isPassable(Point point) {
+		return passable.get(point);
+	}
+
+	/**
+	 * @return The {@link Tile tiles} that can contain the
+	 *         {@link characters.MainCharacter player}.
+	 */
+	public Bitboard getPassable() {
+		return passable;
+	}
+
+	/**
+	 * @return The {@link Tile tiles} that cannot contain the
+	 *         {@link characters.MainCharacter player}.
+	 */
+	public Bitboard getBlocking() {
+		return blocking;
+	}
+
+	/**
+	 * @return The {@link Tile tiles} that are doors, whether open, locked or
+	 *         secret.
+	 */
+	public Bitboard getDoors() {
+		return doors;
+	}
+
+	/**
+	 * @return The {@link Tile tiles} that do something when the
+	 *         {@link characters.MainCharacter player} walks into them:
+	 *         letters, special items, bosses, statues and locked doors.
+	 */
+	public Bitboard getEvents() {
+		return events;
+	}
+
+	/**
+	 * Finds everything the {@link characters.MainCharacter player} can walk
+	 * to without leaving the <b>TileMap</b>.
+	 * 
+	 * @param point
+	 *            the {@link Tile} the {@link characters.MainCharacter player}
+	 *            starts on.
+	 * @return Every passable {@link Tile} that can be reached from point,
+	 *         along with point itself.
+	 */
+	public Bitboard getReachable(Point point) {
+		Bitboard start = Bitboard.of(point.x, point.y);
+		return start.flood(passable.or(start));
+	}
+
+	/**
+	 * @param point
+	 *            an (x,y) coordinate on the <b>TileMap</b>.
+	 * @return The message of the {@link Tile} at (point.x, point.y).
+	 */
+	public String getMessage(Point point) {
+		return getType(point).getMessage();
+	}
+
+	/**
+	 * @param point
+	 *            an (x,y) coordinate on the <b>TileMap</b>.
+	 * @return The chance of meeting an {@link characters.Enemy enemy} on the
+	 *         {@link Tile} at (point.x, point.y).
+	 */
+	public double getEnemyChance(Point point) {
+		return getType(point).getEnemyChance();
+	}
+
+	/**
+	 * @param point
+	 *            an (x,y) coordinate on the <b>TileMap</b>.
+	 * @return The {@link Visibility visibility} of the {@link Tile} at
+	 *         (point.x, point.y).
+	 */
+	public Visibility getVisibility(Point point) {
+		return getType(point).getVisibility();
+	}
+
+	/**
+	 * @param point
+	 *            an (x,y) coordinate on the <b>TileMap</b>.
+	 * @return The letter found on the {@link Tile} at (point.x, point.y), if
+	 *         it is a letter.
+	 */
+	public char getLetter(Point point) {
+		return Item.getLetter(getNumber(cell(point.x, point.y)));
+	}
+
+	/**
+	 * Provides the {@link Image image} of a {@link Tile} on the
+	 * <b>TileMap</b>.
+	 * 
+	 * @param posX
+	 *            x-coordinate of the {@link Tile}
+	 * @param posY
+	 *            y-coordinate of the {@link Tile}
+	 * @return The shared {@link Image image} of the {@link Tile} at (posX,
+	 *         posY), which must not be drawn on.
+	 */
+	public Image drawTile(int posX, int posY) {
+		int cell = cell(posX, posY);
+		TileType type = TileType.get((char) types[cell], level);
+		if (type.getType() == 'l')
+			return type.getDrawing(Item.getLetter(getNumber(cell)), 0);
+		return type.getDrawing('\0', getNumber(cell));
+	}
+
 	/**
 	 * Makes the {@link Tile} at point an empty {@link Tile}, as specified by
 	 * new Tile(' ', level);
 	 * 
 	 * @param point
 	 *            the {@link Tile} being changed.
-	 * @param level
-	 *            the level number of the location of the {@link Tile} being
-	 *            changed.
 	 */
-	public void setTileEmpty(Point point, int level) {
-		myMap[point.x][point.y] = new Tile(' ', level);
+	public void setTileEmpty(Point point) {
+		setType(point, ' ');
 	}
 
 	/**
@@ -107,70 +348,116 @@ public class TileMap {
 	 * 
 	 * @param point
 	 *            location of the door
-	 * @param level
-	 *            the level number of the location of the {@link Tile} being
-	 *            changed.
 	 */
-	public void unlockDoor(Point point, int level) {
-		myMap[point.x][point.y] = new Tile('d', level);
+	public void unlockDoor(Point point) {
+		setType(point, 'd');
 	}
 
 	/**
+	 * @return Whether any {@link Tile} was changed by
+	 *         {@link TileMap#setTileEmpty(Point)} or
+	 *         {@link TileMap#unlockDoor(Point)}.
+	 */
+	public boolean isModified() {
+		return modified;
+	}
+
+	/**
+	 * Provides the rendered <b>TileMap</b>. It is rendered once, and after
+	 * that only the {@link Tile tiles} changed by
+	 * {@link TileMap#setTileEmpty(Point)} and
+	 * {@link TileMap#unlockDoor(Point)} are drawn again.
+	 * 
 	 * @return An {@link Image} that represents the combinations of all the
-	 *         {@link Tile Tiles} on the <b>TileMap</b>.
+	 *         {@link Tile Tiles} on the <b>TileMap</b>. It is reused by
+	 *         later calls, so it must not be drawn on.
 	 */
 	public Image drawMap() {
-		Image drawing;
-		Image row = myMap[0][0].drawTile();
-		for (int j = 1; j < 11; j++) {
-			row = joinBufferedImage((BufferedImage) row, (BufferedImage) myMap[j][0].drawTile(), 0, true);
+		if (surface == null) {
+			surface = COMPOSITOR.createSurface(SIZE, SIZE);
+			COMPOSITOR.render(this, surface);
+			dirty.clear();
+			return surface;
 		}
-		drawing = row;
-		for (int i = 1; i < 11; i++) {
-			row = myMap[0][i].drawTile();
-			for (int j = 1; j < 11; j++) {
-				row = joinBufferedImage((BufferedImage) row, (BufferedImage) myMap[j][i].drawTile(), 0, true);
-			}
-			drawing = joinBufferedImage((BufferedImage) drawing, (BufferedImage) row, 0, false);
+
+		Graphics2D g = null;
+		for (int cell = dirty.nextSetBit(0); cell >= 0; cell = dirty.nextSetBit(cell + 1)) {
+			if (g == null)
+				g = surface.createGraphics();
+			int x = cell % SIZE;
+			int y = cell / SIZE;
+			COMPOSITOR.render(this, x, y, 1, 1, g, x * Tile.TILE_SIZE, y * Tile.TILE_SIZE);
 		}
+		dirty.clear();
+		if (g != null)
+			g.dispose();
 
-		return drawing;
+		return surface;
+	}
+
+	/**
+	 * Changes the type of a {@link Tile}.
+	 * 
+	 * @param point
+	 *            the {@link Tile} being changed.
+	 * @param type
+	 *            the character of the new type.
+	 */
+	private void setType(Point point, char type) {
+		int cell = cell(point.x, point.y);
+		types[cell] = (byte) type;
+		classify(point.x, point.y, type);
+		dirty.set(cell);
+		modified = true;
 	}
 
 	/**
-	 * Combines two images into one.
+	 * Adds a {@link Tile} to the {@link Bitboard bitboards} of its type, and
+	 * removes it from the others.
 	 * 
-	 * @param img1
-	 *            The {@link java.awt.Image images} on the left or top.
-	 * @param img2
-	 *            The {@link java.awt.Image images} on the right or bottom.
-	 * @param offset
-	 *            Distance between the two {@link java.awt.Image images}.
-	 * @param right
-	 *            If true, img2 is connected at the right. If false, img2 is
-	 *            connected at the bottom.
-	 * @return The {@link java.awt.Image image} created by merging the two
-	 *         provided {@link java.awt.Image images}.
-	 */
-	private static BufferedImage joinBufferedImage(BufferedImage img1, BufferedImage img2, int offset, boolean right) {
-		int wid = img1.getWidth();
-		int height = img1.getHeight();
-		if (right)
-			wid += img2.getWidth() + offset;
-		else
-			height += img2.getHeight() + offset;
-		BufferedImage newImage = new BufferedImage(wid, height, BufferedImage.TYPE_INT_ARGB);
-		Graphics2D g2 = newImage.createGraphics();
-		Color oldColor = g2.getColor();
-		g2.setPaint(Color.WHITE);
-		g2.fillRect(0, 0, wid, height);
-		g2.setColor(oldColor);
-		g2.drawImage(img1, null, 0, 0);
-		if (right)
-			g2.drawImage(img2, null, img1.getWidth() + offset, 0);
-		else
-			g2.drawImage(img2, null, 0, img1.getHeight() + offset);
-		g2.dispose();
-		return newImage;
+	 * @param x
+	 *            x-coordinate of the {@link Tile}
+	 * @param y
+	 *            y-coordinate of the {@link Tile}
+	 * @param type
+	 *            the character of the {@link Tile}.
+	 */
+	private void classify(int x, int y, char type) {
+		boolean open = TileType.get(type, level).isPassable();
+		passable = passable.with(x, y, open);
+		blocking = blocking.with(x, y, !open);
+		doors = doors.with(x, y, DOORS.indexOf(type) >= 0);
+		events = events.with(x, y, EVENTS.indexOf(type) >= 0);
+	}
+
+	/**
+	 * Finds the position of a {@link Tile} in {@link TileMap#types}.
+	 * 
+	 * @param posX
+	 *            x-coordinate of the {@link Tile}
+	 * @param posY
+	 *            y-coordinate of the {@link Tile}
+	 * @return The position of the {@link Tile} at (posX, posY).
+	 */
+	private static int cell(int posX, int posY) {
+		if (posX < 0 || posX >= SIZE || posY < 0 || posY >= SIZE)
+			throw new ArrayIndexOutOfBoundsException("No tile at (" + posX + ", " + posY + ")");
+		return posY * SIZE + posX;
+	}
+
+	/**
+	 * Finds the letter or statue part number of a {@link Tile}.
+	 * 
+	 * @param cell
+	 *            the position of the {@link Tile} in {@link TileMap#types}.
+	 * @return The number of the {@link Tile}, or 0 if it is not a letter or a
+	 *         statue.
+	 */
+	private int getNumber(int cell) {
+		for (int i = 0; i < numbered.length; i++) {
+			if (numbered[i] == cell)
+				return numbers[i];
+		}
+		return 0;
 	}
 }
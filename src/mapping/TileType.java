@@ -0,0 +1,337 @@
+package mapping;
+
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+
+import javax.imageio.ImageIO;
+
+/**
+ * A <b>TileType</b> holds everything that is shared by all the {@link Tile
+ * tiles} of one type on one level: whether they are passable, their
+ * {@link Visibility visibility}, their chance of an {@link characters.Enemy
+ * enemy}, their message and their {@link Image image}.
+ * <p>
+ * There is only one <b>TileType</b> for each type and level, provided by
+ * {@link TileType#get(char, int)}, and every texture is only decoded once, no
+ * matter how many {@link Tile tiles} use it. The {@link Image images} provided
+ * are shared, and must not be drawn on.
+ * <p>
+ * Letters and statues are the only {@link Tile tiles} that look different from
+ * others of their type, so their {@link Image images} are chosen by the
+ * letter or statue number kept by each {@link Tile}.
+ *
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ * @see Tile
+ *
+ */
+public class TileType {
+	/**
+	 * The folder holding all the textures of {@link Tile tiles}.
+	 */
+	private static final String TEXTURES = "resources/graphics/textures/";
+
+	/**
+	 * The highest level that a <b>TileType</b> can be used on.
+	 */
+	private static final int LEVELS = 3;
+
+	/**
+	 * Every <b>TileType</b> created, by level and type.
+	 */
+	private static final TileType[][] types = new TileType[LEVELS + 1][128];
+
+	/**
+	 * Every {@link Image image} decoded or composed, by name.
+	 */
+	private static final HashMap<String, BufferedImage> images = new HashMap<String, BufferedImage>();
+
+	/**
+	 * The character representing this <b>TileType</b> in a .map file.
+	 */
+	private final char type;
+
+	/**
+	 * The level the <b>TileType</b> is used on, as defined in
+	 * {@link frame.GameGraphics#getLevel() GameGraphics.getLevel()}.
+	 */
+	private final int level;
+
+	/**
+	 * Whether {@link Tile tiles} of this type can contain
+	 * {@link characters.MainCharacter MainCharacter} or not.
+	 */
+	private final boolean passable;
+
+	/**
+	 * The {@link Image} used to draw {@link Tile tiles} of this type, or null
+	 * if it depends on the {@link Tile}.
+	 */
+	private final Image drawing;
+
+	/**
+	 * The {@link Visibility visibility} provided when standing on
+	 * {@link Tile tiles} of this type.
+	 */
+	private final Visibility visibility;
+
+	/**
+	 * The chance of encountering an {@link characters.Enemy enemy} on
+	 * {@link Tile tiles} of this type. 0 is none and 1 is guaranteed.
+	 */
+	private final double enemyChance;
+
+	/**
+	 * The message to be displayed when {@link Tile tiles} of this type are
+	 * encountered.
+	 */
+	private final String message;
+
+	/**
+	 * Defines a <b>TileType</b>.
+	 *
+	 * @param type
+	 *            the character representing the <b>TileType</b>.
+	 * @param level
+	 *            the level the <b>TileType</b> is used on.
+	 * @param passable
+	 *            whether its {@link Tile tiles} are passable.
+	 * @param drawing
+	 *            the {@link Image image} of its {@link Tile tiles}.
+	 * @param visibility
+	 *            the {@link Visibility visibility} of its {@link Tile tiles}.
+	 * @param enemyChance
+	 *            the chance of an {@link characters.Enemy enemy}.
+	 * @param message
+	 *            the message of its {@link Tile tiles}.
+	 */
+	private TileType(char type, int level, boolean passable, Image drawing, Visibility visibility,
+			double enemyChance, String message) {
+		this.type = type;
+		this.level = level;
+		this.passable = passable;
+		this.drawing = drawing;
+		this.visibility = visibility;
+		this.enemyChance = enemyChance;
+		this.message = message;
+	}
+
+	/**
+	 * Provides the <b>TileType</b> of a type on a level, creating it the first
+	 * time it is needed.
+	 *
+	 * @param type
+	 *            the character representing the type in a .map file.
+	 * @param level
+	 *            the current level, as defined in
+	 *            {@link frame.GameGraphics#getLevel() GameGraphics.getLevel()}.
+	 * @return The shared <b>TileType</b>.
+	 */
+	public static TileType get(char type, int level) {
+		if (level < 0 || level > LEVELS || type >= 128)
+			throw new IllegalArgumentException("No tile type " + type + " on level " + level);
+		// Every field is final, so a TileType read without the lock is
+		// always complete.
+		TileType out = types[level][type];
+		if (out == null)
+			out = add(type, level);
+		return out;
+	}
+
+	/**
+	 * Creates the <b>TileType</b> of a type on a level, unless another thread
+	 * already has.
+	 *
+	 * @param type
+	 *            the character representing the type.
+	 * @param level
+	 *            the level the type is used on.
+	 * @return The shared <b>TileType</b>.
+	 */
+	private static synchronized TileType add(char type, int level) {
+		TileType out = types[level][type];
+		if (out == null) {
+			out = create(type, level);
+			types[level][type] = out;
+		}
+		return out;
+	}
+
+	/**
+	 * Creates the <b>TileType</b> of a type on a level.
+	 *
+	 * @param type
+	 *            the character representing the type.
+	 * @param level
+	 *            the level the type is used on.
+	 * @return The new <b>TileType</b>.
+	 */
+	private static TileType create(char type, int level) {
+		switch (type) {
+		case ' ':
+			return new TileType(type, level, true, getTexture("floor" + level), Visibility.ALL, 0.05 * level, null);
+		case 'w':
+			return new TileType(type, level, false, getTexture("wall" + level), Visibility.ALL, 0.0,
+					"I cannot walk through walls.");
+		case 's':
+			return new TileType(type, level, true, getTexture("wall" + level), Visibility.ALL_BUT_CURRENT, 0.0,
+					"I've discovered a secret door.");
+		case 'd':
+			return new TileType(type, level, true, getTexture("door" + level), Visibility.ALL_BUT_CURRENT, 0.0,
+					null);
+		case 'c':
+			return new TileType(type, level, false, getTexture("door" + level), Visibility.ALL, 0.0,
+					"The door is locked. I need to find a key to open it!");
+		case 'p':
+			return new TileType(type, level, false, getTexture("pillar"), Visibility.ALL, 0.0,
+					"A beautiful column stands in front of me.");
+		case 'b':
+			return new TileType(type, level, false, getTexture("boulder"), Visibility.ALL, 0.0,
+					"I ran into a boulder. I should watch where I'm going!");
+		case 'g':
+			return new TileType(type, level, false, getTexture("glowingwall"), Visibility.ALL, 0.0,
+					"The wall sparkles with different colours.");
+		case 't':
+			return new TileType(type, level, false, getTexture("torch"), Visibility.ALL, 0.0,
+					"A torch lights the room.");
+		case 'l':
+			return new TileType(type, level, true, null, Visibility.ALL, 0.0, "I have found a letter!");
+		case 'h':
+			return new TileType(type, level, false, getTexture("hut"), Visibility.ALL, 0.0,
+					"The villagers look at me in fear as I pass by their hut.");
+		case 'X':
+			return new TileType(type, level, false, null, Visibility.ALL, 0.0, "BRING ME BACK MY LOST LETTERS!");
+		case 'S':
+		case 'N':
+		case 'W':
+		case 'E':
+			return new TileType(type, level, true, getTexture("stairs" + type), Visibility.ALL, 0.0, null);
+		case 'B':
+			return new TileType(type, level, true, getComposite("floor" + level, "boss" + level + "icon"),
+					Visibility.ALL, 1.0, "I have encountered a monster unlike any I've seen before!");
+		case 'i':
+			return new TileType(type, level, true, getComposite("floor" + level, "itemicon"), Visibility.ALL, 0.0,
+					"I have found a special item!");
+		default:
+			System.out.println("No image for" + type);
+			return new TileType(type, level, false, null, Visibility.ALL, 0.0, null);
+		}
+	}
+
+	/**
+	 * Provides a texture, decoding it the first time it is needed. A
+	 * placeholder is provided instead of textures that cannot be read.
+	 *
+	 * @param name
+	 *            the name of the texture, without the folder or extension.
+	 * @return The shared texture.
+	 */
+	private static synchronized BufferedImage getTexture(String name) {
+		BufferedImage out = images.get(name);
+		if (out == null) {
+			try {
+				out = ImageIO.read(new File(TEXTURES + name + ".png"));
+			} catch (IOException e) {
+				try {
+					out = ImageIO.read(new File("resources/graphics/characters/main/temp.png"));
+				} catch (IOException e1) {
+					e1.printStackTrace();
+				}
+			}
+			images.put(name, out);
+		}
+		return out;
+	}
+
+	/**
+	 * Provides a texture drawn over another one, composing it the first time
+	 * it is needed.
+	 *
+	 * @param base
+	 *            the name of the texture underneath.
+	 * @param overlay
+	 *            the name of the texture drawn on top.
+	 * @return The shared composed {@link Image image}.
+	 */
+	private static synchronized BufferedImage getComposite(String base, String overlay) {
+		String key = base + "+" + overlay;
+		BufferedImage out = images.get(key);
+		if (out == null) {
+			BufferedImage under = getTexture(base);
+			out = new BufferedImage(under.getWidth(), under.getHeight(), BufferedImage.TYPE_INT_ARGB);
+			Graphics g = out.getGraphics();
+			g.drawImage(under, 0, 0, null);
+			g.drawImage(getTexture(overlay), 0, 0, null);
+			g.dispose();
+			images.put(key, out);
+		}
+		return out;
+	}
+
+	/**
+	 * @return The character representing this <b>TileType</b> in a .map file.
+	 */
+	public char getType() {
+		return type;
+	}
+
+	/**
+	 * @return The level this <b>TileType</b> is used on.
+	 */
+	public int getLevel() {
+		return level;
+	}
+
+	/**
+	 * @return The passability of {@link Tile tiles} of this type.
+	 */
+	public boolean isPassable() {
+		return passable;
+	}
+
+	/**
+	 * Provides the {@link Image image} of a {@link Tile} of this type.
+	 *
+	 * @param letter
+	 *            the letter shown by the {@link Tile}, only used by letters.
+	 * @param statue
+	 *            the statue part shown by the {@link Tile}, only used by
+	 *            statues.
+	 * @return The shared {@link Image image} of the {@link Tile}.
+	 */
+	public Image getDrawing(char letter, int statue) {
+		if (type == 'l')
+			return getComposite("floor" + level, "" + letter);
+		if (type == 'X')
+			return getTexture("statue" + statue);
+		return drawing;
+	}
+
+	/**
+	 * @return The {@link Visibility visibility} of {@link Tile tiles} of this
+	 *         type.
+	 */
+	public Visibility getVisibility() {
+		return visibility;
+	}
+
+	/**
+	 * @return The chance of meeting an {@link characters.Enemy enemy} on
+	 *         {@link Tile tiles} of this type.
+	 */
+	public double getEnemyChance() {
+		return enemyChance;
+	}
+
+	/**
+	 * @return The message associated with {@link Tile tiles} of this type.
+	 */
+	public String getMessage() {
+		return message;
+	}
+}
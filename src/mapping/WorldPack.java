@@ -0,0 +1,543 @@
+package mapping;
+
+import java.awt.Point;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+
+/**
+ * A <b>WorldPack</b> holds every {@link TileMap map} of the game, read directly
+ * from a single world file which is memory-mapped rather than parsed. The file
+ * is created from the .map files by {@link WorldPackCompiler}.
+ * <p>
+ * Each {@link TileMap map} has an id, its position in the file, along with its
+ * level, its position in the world, and a portal on each of its four sides.
+ * A portal leads to another {@link TileMap map}, and may also place the
+ * {@link characters.MainCharacter player} at a fixed position and show a
+ * message on the way. A {@link TileMap map} may also be lit, confusing or
+ * an intersection, as defined by {@link WorldPack#isLit(int)},
+ * {@link WorldPack#isConfusing(int)} and {@link WorldPack#isIntersection(int)}.
+ * The levels, kinds and portals of every {@link TileMap map} form the graph
+ * of the world, which is read into arrays once when the file is opened, so
+ * that following a portal or finding a level does not read the file. The
+ * letters and statue parts of every {@link TileMap map} are numbered then as
+ * well, by counting them in order of id, so that every {@link TileMap} made
+ * from the same world numbers them the same way.
+ * <p>
+ * The layout of the file, with all numbers stored as big-endian ints unless
+ * stated otherwise:
+ * <p>
+ * {@link WorldPack#MAGIC}, {@link WorldPack#VERSION}, the amount of
+ * {@link TileMap maps} N, and the width and height of every {@link TileMap
+ * map}, which must be {@link TileMap#SIZE}.
+ * <p>
+ * N entries of {@link WorldPack#ENTRY_SIZE} bytes: the name as 4 ASCII bytes,
+ * padded with zeros, followed by the level, column, row and kinds as bytes,
+ * followed by the portals going up, down, left and right. Each portal is
+ * {@link WorldPack#PORTAL_SIZE} bytes: the id reached as a short, or
+ * {@link WorldPack#NONE}, the x and y of the arrival as bytes, or
+ * {@link WorldPack#NONE} to arrive across from the exit, and the index of the
+ * message as a short, or {@link WorldPack#NONE}. The kinds are a bit each:
+ * {@link WorldPack#LIT}, {@link WorldPack#CONFUSING} and
+ * {@link WorldPack#INTERSECTION}.
+ * <p>
+ * N grids of {@link TileMap#SIZE} by {@link TileMap#SIZE} bytes, row by row,
+ * each byte being the character of a {@link Tile} as found in the .map file.
+ * <p>
+ * The amount of messages, followed by each message as a short length and that
+ * many bytes of UTF-8.
+ *
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ * @see WorldPackCompiler
+ */
+public class WorldPack {
+	/**
+	 * Identifies a world file.
+	 */
+	public static final int MAGIC = 0x4C425757;
+
+	/**
+	 * The version of the file layout that can be read.
+	 */
+	public static final int VERSION = 3;
+
+	/**
+	 * The side of a {@link TileMap} leading up.
+	 */
+	public static final int UP = 0;
+
+	/**
+	 * The side of a {@link TileMap} leading down.
+	 */
+	public static final int DOWN = 1;
+
+	/**
+	 * The side of a {@link TileMap} leading left.
+	 */
+	public static final int LEFT = 2;
+
+	/**
+	 * The side of a {@link TileMap} leading right.
+	 */
+	public static final int RIGHT = 3;
+
+	/**
+	 * The id of a {@link TileMap} that does not exist.
+	 */
+	public static final int NONE = -1;
+
+	/**
+	 * The kind of a {@link TileMap} on level 3 that is not covered in
+	 * darkness.
+	 */
+	public static final int LIT = 1;
+
+	/**
+	 * The kind of a {@link TileMap} on which movement is sometimes reversed.
+	 */
+	public static final int CONFUSING = 2;
+
+	/**
+	 * The kind of a {@link TileMap} whose exits sometimes lead to a random
+	 * intersection instead.
+	 */
+	public static final int INTERSECTION = 4;
+
+	/**
+	 * The size of the header before the entries.
+	 */
+	static final int HEADER_SIZE = 16;
+
+	/**
+	 * The size of the entry of each {@link TileMap}.
+	 */
+	static final int ENTRY_SIZE = 8 + 4 * 6;
+
+	/**
+	 * The size of each portal in an entry.
+	 */
+	static final int PORTAL_SIZE = 6;
+
+	/**
+	 * The world file of the game.
+	 */
+	private static final File FILE = new File("resources/miscellaneous/world.pack");
+
+	/**
+	 * The folder containing the .map files that {@link WorldPack#FILE} was
+	 * created from.
+	 */
+	private static final File MAPS = new File("resources/maps");
+
+	/**
+	 * The world of the game, or null if it has not been read yet.
+	 */
+	private static WorldPack world;
+
+	/**
+	 * The mapped contents of the file. Only absolute reads are used, so it
+	 * can be shared between threads.
+	 */
+	private ByteBuffer data;
+
+	/**
+	 * The amount of {@link TileMap maps} in the file.
+	 */
+	private int size;
+
+	/**
+	 * The position of the first grid in {@link WorldPack#data}.
+	 */
+	private int grids;
+
+	/**
+	 * The id of every {@link TileMap}, by name.
+	 */
+	private HashMap<String, Integer> ids;
+
+	/**
+	 * The name of every {@link TileMap}, by id.
+	 */
+	private String[] names;
+
+	/**
+	 * The level of every {@link TileMap}, by id.
+	 */
+	private byte[] levels;
+
+	/**
+	 * The kinds of every {@link TileMap}, by id.
+	 */
+	private byte[] kinds;
+
+	/**
+	 * The ids of every intersection, in order.
+	 */
+	private int[] intersections;
+
+	/**
+	 * The position of the first letter of every {@link TileMap}, by id.
+	 */
+	private int[] letters;
+
+	/**
+	 * The position of the first statue part of every {@link TileMap}, by id.
+	 */
+	private int[] statues;
+
+	/**
+	 * The id reached through every side of every {@link TileMap}, at id * 4 +
+	 * side.
+	 */
+	private short[] portals;
+
+	/**
+	 * The x and y of the arrival through every side of every {@link TileMap},
+	 * at (id * 4 + side) * 2.
+	 */
+	private byte[] arrivals;
+
+	/**
+	 * The message shown going through every side of every {@link TileMap}, at
+	 * id * 4 + side, or null if there is none.
+	 */
+	private String[] messages;
+
+	/**
+	 * Creates a <b>WorldPack</b> from the contents of a world file.
+	 *
+	 * @param data
+	 *            the contents of the file.
+	 * @throws IOException
+	 *             if the contents are not a world file.
+	 */
+	public WorldPack(ByteBuffer data) throws IOException {
+		this.data = data;
+		if (data.capacity() < HEADER_SIZE || data.getInt(0) != MAGIC)
+			throw new IOException("Not a world file");
+		if (data.getInt(4) != VERSION)
+			throw new IOException("Unsupported world version " + data.getInt(4));
+		size = data.getInt(8);
+		if (data.getInt(12) != TileMap.SIZE)
+			throw new IOException("World maps are " + data.getInt(12) + " tiles wide instead of " + TileMap.SIZE);
+
+		grids = HEADER_SIZE + size * ENTRY_SIZE;
+		int text = grids + size * TileMap.SIZE * TileMap.SIZE;
+		if (size < 0 || text + 4 > data.capacity())
+			throw new IOException("World file is truncated");
+
+		String[] table = new String[data.getInt(text)];
+		text += 4;
+		for (int i = 0; i < table.length; i++) {
+			if (text + 2 > data.capacity() || text + 2 + data.getShort(text) > data.capacity())
+				throw new IOException("World file is truncated");
+			byte[] bytes = new byte[data.getShort(text)];
+			for (int j = 0; j < bytes.length; j++) {
+				bytes[j] = data.get(text + 2 + j);
+			}
+			table[i] = new String(bytes, "UTF-8");
+			text += 2 + bytes.length;
+		}
+
+		ids = new HashMap<String, Integer>();
+		names = new String[size];
+		levels = new byte[size];
+		kinds = new byte[size];
+		portals = new short[size * 4];
+		arrivals = new byte[size * 8];
+		messages = new String[size * 4];
+		for (int id = 0; id < size; id++) {
+			int entry = HEADER_SIZE + id * ENTRY_SIZE;
+			StringBuilder name = new StringBuilder(4);
+			for (int i = 0; i < 4 && data.get(entry + i) != 0; i++) {
+				name.append((char) data.get(entry + i));
+			}
+			names[id] = name.toString();
+			ids.put(names[id], id);
+			levels[id] = data.get(entry + 4);
+			kinds[id] = data.get(entry + 7);
+
+			for (int side = 0; side < 4; side++) {
+				int portal = entry + 8 + side * PORTAL_SIZE;
+				portals[id * 4 + side] = data.getShort(portal);
+				arrivals[(id * 4 + side) * 2] = data.get(portal + 2);
+				arrivals[(id * 4 + side) * 2 + 1] = data.get(portal + 3);
+				int message = data.getShort(portal + 4);
+				if (portals[id * 4 + side] < NONE || portals[id * 4 + side] >= size || message < NONE
+						|| message >= table.length)
+					throw new IOException("Invalid portal on map " + names[id]);
+				messages[id * 4 + side] = message == NONE ? null : table[message];
+			}
+		}
+
+		letters = new int[size];
+		statues = new int[size];
+		int letterNum = 0;
+		int statueNum = 0;
+		for (int id = 0; id < size; id++) {
+			letters[id] = letterNum;
+			statues[id] = statueNum;
+			for (int cell = 0; cell < TileMap.SIZE * TileMap.SIZE; cell++) {
+				char type = getTile(id, cell % TileMap.SIZE, cell / TileMap.SIZE);
+				if (type == 'l')
+					letterNum++;
+				else if (type == 'X')
+					statueNum++;
+			}
+		}
+
+		int count = 0;
+		for (int id = 0; id < size; id++) {
+			if (isIntersection(id))
+				count++;
+		}
+		intersections = new int[count];
+		count = 0;
+		for (int id = 0; id < size; id++) {
+			if (isIntersection(id))
+				intersections[count++] = id;
+		}
+	}
+
+	/**
+	 * Memory-maps a world file.
+	 *
+	 * @param file
+	 *            the file created by {@link WorldPackCompiler}.
+	 * @return A <b>WorldPack</b> of the {@link TileMap maps} in the file.
+	 * @throws IOException
+	 *             if the file cannot be read, or is not a world file.
+	 */
+	public static WorldPack open(File file) throws IOException {
+		RandomAccessFile in = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = in.getChannel();
+			return new WorldPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Provides the world of the game, reading it the first time it is needed.
+	 * If the world file cannot be read, the .map files are read instead, and
+	 * if they cannot be read either the world is empty.
+	 *
+	 * @return The shared <b>WorldPack</b>.
+	 */
+	public static synchronized WorldPack getWorld() {
+		if (world != null)
+			return world;
+
+		try {
+			world = open(FILE);
+			return world;
+		} catch (IOException e) {
+			System.err.println(e.getMessage());
+		}
+
+		try {
+			world = new WorldPack(ByteBuffer.wrap(WorldPackCompiler.compile(MAPS)));
+		} catch (IOException e) {
+			e.printStackTrace();
+			ByteBuffer empty = ByteBuffer.allocate(HEADER_SIZE + 4);
+			empty.putInt(MAGIC).putInt(VERSION).putInt(0).putInt(TileMap.SIZE).putInt(0);
+			try {
+				world = new WorldPack(empty);
+			} catch (IOException impossible) {
+				throw new IllegalStateException(impossible);
+			}
+		}
+		return world;
+	}
+
+	/**
+	 * @return The amount of {@link TileMap maps} in the world.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param name
+	 *            the name of a {@link TileMap}, as defined by the .map files.
+	 * @return The id of the {@link TileMap}, or {@link WorldPack#NONE} if
+	 *         there is none by that name.
+	 */
+	public int getId(String name) {
+		Integer out = ids.get(name);
+		return out == null ? NONE : out;
+	}
+
+	/**
+	 * @param id
+	 *            the id of a {@link TileMap}.
+	 * @return The name of the {@link TileMap}, as defined by the .map files.
+	 */
+	public String getName(int id) {
+		return names[id];
+	}
+
+	/**
+	 * @param id
+	 *            the id of a {@link TileMap}.
+	 * @return The level of the {@link TileMap}, as defined in
+	 *         {@link frame.GameGraphics#getLevel() GameGraphics.getLevel()}.
+	 */
+	public int getLevel(int id) {
+		return levels[id];
+	}
+
+	/**
+	 * @param id
+	 *            the id of a {@link TileMap}.
+	 * @return Whether the {@link TileMap} is of the kind
+	 *         {@link WorldPack#LIT}.
+	 */
+	public boolean isLit(int id) {
+		return (kinds[id] & LIT) != 0;
+	}
+
+	/**
+	 * @param id
+	 *            the id of a {@link TileMap}.
+	 * @return Whether the {@link TileMap} is of the kind
+	 *         {@link WorldPack#CONFUSING}.
+	 */
+	public boolean isConfusing(int id) {
+		return (kinds[id] & CONFUSING) != 0;
+	}
+
+	/**
+	 * @param id
+	 *            the id of a {@link TileMap}.
+	 * @return Whether the {@link TileMap} is of the kind
+	 *         {@link WorldPack#INTERSECTION}.
+	 */
+	public boolean isIntersection(int id) {
+		return (kinds[id] & INTERSECTION) != 0;
+	}
+
+	/**
+	 * @return The ids of every {@link TileMap} of the kind
+	 *         {@link WorldPack#INTERSECTION}, in order.
+	 */
+	public int[] getIntersections() {
+		return intersections;
+	}
+
+	/**
+	 * @param id
+	 *            the id of a {@link TileMap}.
+	 * @return The position of the first letter of the {@link TileMap}.
+	 */
+	public int getFirstLetter(int id) {
+		return letters[id];
+	}
+
+	/**
+	 * @param id
+	 *            the id of a {@link TileMap}.
+	 * @return The position of the first statue part of the {@link TileMap}.
+	 */
+	public int getFirstStatue(int id) {
+		return statues[id];
+	}
+
+	/**
+	 * @param id
+	 *            the id of a {@link TileMap}.
+	 * @return The column of the {@link TileMap} in the world, counted from
+	 *         the left.
+	 */
+	public int getColumn(int id) {
+		return data.get(entry(id) + 5);
+	}
+
+	/**
+	 * @param id
+	 *            the id of a {@link TileMap}.
+	 * @return The row of the {@link TileMap} in the world, counted from the
+	 *         top.
+	 */
+	public int getRow(int id) {
+		return data.get(entry(id) + 6);
+	}
+
+	/**
+	 * @param id
+	 *            the id of a {@link TileMap}.
+	 * @param side
+	 *            {@link WorldPack#UP}, {@link WorldPack#DOWN},
+	 *            {@link WorldPack#LEFT} or {@link WorldPack#RIGHT}.
+	 * @return The id of the {@link TileMap} reached by leaving through that
+	 *         side, or {@link WorldPack#NONE} if there is none.
+	 */
+	public int getPortal(int id, int side) {
+		return portals[id * 4 + side];
+	}
+
+	/**
+	 * @param id
+	 *            the id of a {@link TileMap}.
+	 * @param side
+	 *            {@link WorldPack#UP}, {@link WorldPack#DOWN},
+	 *            {@link WorldPack#LEFT} or {@link WorldPack#RIGHT}.
+	 * @return The position reached by leaving through that side, or null if
+	 *         it is across from the position left from, on the opposite side
+	 *         of the next {@link TileMap}.
+	 */
+	public Point getArrival(int id, int side) {
+		int arrival = (id * 4 + side) * 2;
+		if (arrivals[arrival] == NONE || arrivals[arrival + 1] == NONE)
+			return null;
+		return new Point(arrivals[arrival], arrivals[arrival + 1]);
+	}
+
+	/**
+	 * @param id
+	 *            the id of a {@link TileMap}.
+	 * @param side
+	 *            {@link WorldPack#UP}, {@link WorldPack#DOWN},
+	 *            {@link WorldPack#LEFT} or {@link WorldPack#RIGHT}.
+	 * @return The message shown when leaving through that side, or null if
+	 *         there is none.
+	 */
+	public String getMessage(int id, int side) {
+		return messages[id * 4 + side];
+	}
+
+	/**
+	 * @param id
+	 *            the id of a {@link TileMap}.
+	 * @param x
+	 *            the x-coordinate of the {@link Tile}.
+	 * @param y
+	 *            the y-coordinate of the {@link Tile}.
+	 * @return The character of the {@link Tile} at (x, y), as found in the
+	 *         .map file.
+	 */
+	public char getTile(int id, int x, int y) {
+		if (x < 0 || x >= TileMap.SIZE || y < 0 || y >= TileMap.SIZE)
+			throw new IndexOutOfBoundsException("No tile at (" + x + ", " + y + ")");
+		return (char) (data.get(grids + (id * TileMap.SIZE + y) * TileMap.SIZE + x) & 0xFF);
+	}
+
+	/**
+	 * Finds the entry of a {@link TileMap}.
+	 *
+	 * @param id
+	 *            the id of the {@link TileMap}.
+	 * @return The position of the entry in {@link WorldPack#data}.
+	 */
+	private int entry(int id) {
+		if (id < 0 || id >= size)
+			throw new IndexOutOfBoundsException("No map " + id);
+		return HEADER_SIZE + id * ENTRY_SIZE;
+	}
+}
@@ -0,0 +1,304 @@
+package mapping;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * <b>WorldPackCompiler</b> creates the world file read by {@link WorldPack}
+ * from the .map files. It is run once whenever a .map file changes, so that
+ * the game does not need to parse every .map file when it starts, while the
+ * .map files can still be edited by hand.
+ * <p>
+ * Usage: {@code java mapping.WorldPackCompiler [maps folder] [world.pack]}
+ * <p>
+ * The default input is resources/maps, and the default output is
+ * resources/miscellaneous/world.pack. Every .map file in the folder must be
+ * at least {@link TileMap#SIZE} lines of at least {@link TileMap#SIZE}
+ * characters. Exits that do not lead to the {@link TileMap map} next to them,
+ * or that place the {@link characters.MainCharacter player} somewhere else
+ * or show a message, are read from the portals.txt file of the folder, along
+ * with the kinds of the {@link TileMap maps}.
+ *
+ * @author Lev Raizman
+ * @version 2.0.0.0
+ *
+ */
+public class WorldPackCompiler {
+	/**
+	 * The names of the sides of a {@link TileMap} in portals.txt, in the
+	 * order of {@link WorldPack#UP}, {@link WorldPack#DOWN},
+	 * {@link WorldPack#LEFT} and {@link WorldPack#RIGHT}.
+	 */
+	private static final String[] SIDES = { "up", "down", "left", "right" };
+
+	/**
+	 * The names of the kinds of a {@link TileMap} in portals.txt, in the
+	 * order of the bits {@link WorldPack#LIT}, {@link WorldPack#CONFUSING} and
+	 * {@link WorldPack#INTERSECTION}.
+	 */
+	private static final String[] KINDS = { "lit", "confusing", "intersection" };
+
+	/**
+	 * Compiles a folder of .map files.
+	 *
+	 * @param args
+	 *            the folder and the output file, both optional.
+	 * @throws IOException
+	 *             if a .map file cannot be read or is too small, or the output
+	 *             cannot be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		File in = new File(args.length > 0 ? args[0] : "resources/maps");
+		File out = new File(args.length > 1 ? args[1] : "resources/miscellaneous/world.pack");
+
+		byte[] pack = compile(in);
+		FileOutputStream writer = new FileOutputStream(out);
+		try {
+			writer.write(pack);
+		} finally {
+			writer.close();
+		}
+		System.out.println(new WorldPack(ByteBuffer.wrap(pack)).size() + " maps written to " + out);
+	}
+
+	/**
+	 * Reads every .map file of a folder into a world file, in the layout
+	 * described by {@link WorldPack}. The {@link TileMap maps} are ordered by
+	 * name.
+	 *
+	 * @param directory
+	 *            the folder containing the .map files and portals.txt.
+	 * @return The contents of the world file.
+	 * @throws IOException
+	 *             if a file cannot be read, or a .map file is too small.
+	 */
+	public static byte[] compile(File directory) throws IOException {
+		String[] files = directory.list();
+		if (files == null)
+			throw new FileNotFoundException(directory + " is not a folder");
+		Arrays.sort(files);
+
+		ArrayList<String> names = new ArrayList<String>();
+		for (String file : files) {
+			if (file.endsWith(".map"))
+				names.add(file.substring(0, file.length() - 4));
+		}
+		HashMap<String, Integer> ids = new HashMap<String, Integer>();
+		for (int id = 0; id < names.size(); id++) {
+			if (names.get(id).length() > 4)
+				throw new IOException(names.get(id) + ".map has a name longer than 4 characters");
+			ids.put(names.get(id), id);
+		}
+		HashMap<String, String[]> portals = readPortals(new File(directory, "portals.txt"), ids);
+		ArrayList<String> messages = new ArrayList<String>();
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(WorldPack.MAGIC);
+		out.writeInt(WorldPack.VERSION);
+		out.writeInt(names.size());
+		out.writeInt(TileMap.SIZE);
+
+		for (String name : names) {
+			byte[] padded = Arrays.copyOf(name.getBytes("US-ASCII"), 4);
+			out.write(padded);
+			out.writeByte(getLevel(name));
+			out.writeByte((name.charAt(0) - 'a') / 2);
+			out.writeByte((Integer.parseInt(name.substring(1)) - 1) / 2);
+			int kinds = 0;
+			for (int kind = 0; kind < KINDS.length; kind++) {
+				if (portals.containsKey(name + " " + KINDS[kind]))
+					kinds |= 1 << kind;
+			}
+			out.writeByte(kinds);
+			for (int side = 0; side < SIDES.length; side++) {
+				String[] portal = portals.get(name + " " + SIDES[side]);
+				if (portal == null)
+					portal = new String[] { getNeighbour(name, side), "", "" };
+				Integer id = ids.get(portal[0]);
+				out.writeShort(id == null ? WorldPack.NONE : id);
+
+				if (portal[1].length() == 0) {
+					out.writeByte(WorldPack.NONE);
+					out.writeByte(WorldPack.NONE);
+				} else {
+					String[] arrival = portal[1].split("\\s+");
+					out.writeByte(Integer.parseInt(arrival[0]));
+					out.writeByte(Integer.parseInt(arrival[1]));
+				}
+
+				if (portal[2].length() == 0) {
+					out.writeShort(WorldPack.NONE);
+				} else {
+					if (!messages.contains(portal[2]))
+						messages.add(portal[2]);
+					out.writeShort(messages.indexOf(portal[2]));
+				}
+			}
+		}
+
+		for (String name : names) {
+			out.write(readGrid(new File(directory, name + ".map")));
+		}
+
+		out.writeInt(messages.size());
+		for (String message : messages) {
+			byte[] text = message.getBytes("UTF-8");
+			out.writeShort(text.length);
+			out.write(text);
+		}
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Finds the level of a {@link TileMap} from its name.
+	 *
+	 * @param name
+	 *            the name of the {@link TileMap}.
+	 * @return The level: 2 for the numbers from 11, 3 for the letters from o,
+	 *         and 1 for the rest.
+	 */
+	private static int getLevel(String name) {
+		if (Integer.parseInt(name.substring(1)) >= 11) {
+			return 2;
+		} else if ("opqrstu".contains(name.substring(0, 1))) {
+			return 3;
+		} else {
+			return 1;
+		}
+	}
+
+	/**
+	 * Finds the name of the {@link TileMap} next to another, which is two
+	 * letters or two numbers away.
+	 *
+	 * @param name
+	 *            the name of the {@link TileMap}.
+	 * @param side
+	 *            the side being left through.
+	 * @return The name of the {@link TileMap} next to it, which may not
+	 *         exist.
+	 */
+	private static String getNeighbour(String name, int side) {
+		switch (side) {
+		case WorldPack.UP:
+			return name.substring(0, 1) + (Integer.parseInt(name.substring(1)) - 2);
+		case WorldPack.DOWN:
+			return name.substring(0, 1) + (Integer.parseInt(name.substring(1)) + 2);
+		case WorldPack.LEFT:
+			return (char) (name.charAt(0) - 2) + name.substring(1);
+		default:
+			return (char) (name.charAt(0) + 2) + name.substring(1);
+		}
+	}
+
+	/**
+	 * Reads the exits that do not simply lead to the {@link TileMap} next to
+	 * them, and the kinds of the {@link TileMap maps}.
+	 *
+	 * @param file
+	 *            the portals file, with one "map side destination | x y |
+	 *            message" exit or "map kind" per line and comments starting
+	 *            with //. The arrival and message may be left empty, and a
+	 *            missing file has no exits.
+	 * @param ids
+	 *            the id of every {@link TileMap}, by name.
+	 * @return The destination, arrival and message of every exit, by "map
+	 *         side", and an empty array by "map kind" for every kind. A
+	 *         missing arrival or message is "".
+	 * @throws IOException
+	 *             if the file cannot be read, names a {@link TileMap}, side
+	 *             or kind that does not exist, or places the
+	 *             {@link characters.MainCharacter player} off the
+	 *             {@link TileMap}.
+	 */
+	private static HashMap<String, String[]> readPortals(File file, HashMap<String, Integer> ids) throws IOException {
+		HashMap<String, String[]> out = new HashMap<String, String[]>();
+		if (!file.exists())
+			return out;
+
+		BufferedReader in = new BufferedReader(new FileReader(file));
+		try {
+			String line;
+			while ((line = in.readLine()) != null) {
+				line = line.trim();
+				if (line.length() == 0 || line.startsWith("//"))
+					continue;
+				String[] fields = Arrays.copyOf(line.split("\\|", 3), 3);
+				for (int i = 0; i < fields.length; i++) {
+					fields[i] = fields[i] == null ? "" : fields[i].trim();
+				}
+				String[] parts = fields[0].split("\\s+");
+				if (parts.length == 2 && fields[1].length() == 0 && fields[2].length() == 0
+						&& ids.containsKey(parts[0]) && Arrays.asList(KINDS).contains(parts[1])) {
+					out.put(parts[0] + " " + parts[1], new String[0]);
+					continue;
+				}
+				if (parts.length != 3 || !ids.containsKey(parts[0]) || !ids.containsKey(parts[2])
+						|| !Arrays.asList(SIDES).contains(parts[1]) || !isArrival(fields[1]))
+					throw new IOException("Invalid portal in " + file.getName() + ": " + line);
+				out.put(parts[0] + " " + parts[1], new String[] { parts[2], fields[1], fields[2] });
+			}
+		} finally {
+			in.close();
+		}
+		return out;
+	}
+
+	/**
+	 * @param arrival
+	 *            the arrival of an exit in portals.txt.
+	 * @return Whether the arrival is empty, or an x and y on a
+	 *         {@link TileMap}.
+	 */
+	private static boolean isArrival(String arrival) {
+		if (arrival.length() == 0)
+			return true;
+		String[] parts = arrival.split("\\s+");
+		if (parts.length != 2)
+			return false;
+		for (String part : parts) {
+			if (!part.matches("\\d+") || Integer.parseInt(part) >= TileMap.SIZE)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the {@link Tile tiles} of a .map file.
+	 *
+	 * @param file
+	 *            the .map file.
+	 * @return The characters of the {@link Tile tiles}, row by row.
+	 * @throws IOException
+	 *             if the file cannot be read, or is too small.
+	 */
+	private static byte[] readGrid(File file) throws IOException {
+		byte[] out = new byte[TileMap.SIZE * TileMap.SIZE];
+		BufferedReader in = new BufferedReader(new FileReader(file));
+		try {
+			for (int y = 0; y < TileMap.SIZE; y++) {
+				String line = in.readLine();
+				if (line == null || line.length() < TileMap.SIZE)
+					throw new IOException(file.getName() + " is not " + TileMap.SIZE + " by " + TileMap.SIZE);
+				for (int x = 0; x < TileMap.SIZE; x++) {
+					out[y * TileMap.SIZE + x] = (byte) line.charAt(x);
+				}
+			}
+		} finally {
+			in.close();
+		}
+		return out;
+	}
+}